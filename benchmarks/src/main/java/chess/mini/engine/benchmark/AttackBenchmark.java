@@ -0,0 +1,142 @@
+package chess.mini.engine.benchmark;
+
+import chess.mini.engine.ChessEngine;
+import chess.mini.engine.core.AttackChecker;
+import chess.mini.engine.core.Board;
+import chess.mini.engine.core.CheckDetector;
+import chess.mini.engine.data.Color;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Проверки атак, шаха и мата на всех позициях фазы. Доска кэширует карты атак, шахующие фигуры
+ * и наличие ходов, поэтому перед каждым вызовом кэш сбрасывается (Board.invalidateCaches),
+ * иначе измерялось бы только попадание в кэш. Стоимость попадания отдельно показывает inCheckCached
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AttackBenchmark {
+
+    @Param({BenchmarkPositions.OPENING, BenchmarkPositions.MIDDLEGAME, BenchmarkPositions.ENDGAME})
+    public String position;
+
+    private Board[] boards;
+    private Color[] sides;
+
+    @Setup
+    public void setup() {
+        ChessEngine[] engines = BenchmarkPositions.create(position);
+        boards = new Board[engines.length];
+        sides = new Color[engines.length];
+        for (int i = 0; i < engines.length; i++) {
+            boards[i] = engines[i].getBoard();
+            sides[i] = engines[i].getSideToMove();
+        }
+    }
+
+    /**
+     * Атакованность всех 64 клеток фигурами противника
+     */
+    @Benchmark
+    public int isSquareAttackedAllSquares() {
+        int attacked = 0;
+        for (int i = 0; i < boards.length; i++) {
+            Board board = boards[i];
+            board.invalidateCaches();
+            Color opponent = sides[i].opposite();
+            for (int square = 0; square < 64; square++) {
+                if (AttackChecker.isSquareAttacked(square, opponent, board)) {
+                    attacked++;
+                }
+            }
+        }
+        return attacked;
+    }
+
+    /**
+     * Полная карта атак противника без кэша доски
+     */
+    @Benchmark
+    public long attackMap() {
+        long attacks = 0;
+        for (int i = 0; i < boards.length; i++) {
+            attacks ^= AttackChecker.attackMap(sides[i].opposite(), boards[i]);
+        }
+        return attacks;
+    }
+
+    @Benchmark
+    public int inCheck() {
+        int count = 0;
+        for (int i = 0; i < boards.length; i++) {
+            boards[i].invalidateCaches();
+            if (CheckDetector.inCheck(sides[i], boards[i])) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Повторный запрос к неизменной доске - ответ из кэша
+     */
+    @Benchmark
+    public int inCheckCached() {
+        int count = 0;
+        for (int i = 0; i < boards.length; i++) {
+            if (CheckDetector.inCheck(sides[i], boards[i])) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int isCheckmate() {
+        int count = 0;
+        for (int i = 0; i < boards.length; i++) {
+            boards[i].invalidateCaches();
+            if (CheckDetector.isCheckmate(sides[i], boards[i])) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int isStalemate() {
+        int count = 0;
+        for (int i = 0; i < boards.length; i++) {
+            boards[i].invalidateCaches();
+            if (CheckDetector.isStalemate(sides[i], boards[i])) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Стоимость самого сброса кэша - вычитается из результатов выше
+     */
+    @Benchmark
+    public void invalidateOnly() {
+        for (Board board : boards) {
+            board.invalidateCaches();
+        }
+    }
+}
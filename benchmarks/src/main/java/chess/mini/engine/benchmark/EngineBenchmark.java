@@ -0,0 +1,91 @@
+package chess.mini.engine.benchmark;
+
+import chess.mini.engine.ChessEngine;
+import chess.mini.engine.core.Move;
+import chess.mini.engine.core.MoveList;
+import chess.mini.engine.data.Square;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Выполнение ходов и копирование доски на всех позициях фазы
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EngineBenchmark {
+
+    @Param({BenchmarkPositions.OPENING, BenchmarkPositions.MIDDLEGAME, BenchmarkPositions.ENDGAME})
+    public String position;
+
+    private ChessEngine[] engines;
+    private MoveList[] moves;
+
+    @Setup
+    public void setup() {
+        engines = BenchmarkPositions.create(position);
+        moves = new MoveList[engines.length];
+        for (int i = 0; i < engines.length; i++) {
+            moves[i] = new MoveList();
+            engines[i].getLegalMoves(moves[i]);
+        }
+    }
+
+    /**
+     * Выполнение и отмена каждого легального хода позиции
+     */
+    @Benchmark
+    public long makeUnmakeAllMoves() {
+        long hash = 0;
+        for (int i = 0; i < engines.length; i++) {
+            ChessEngine engine = engines[i];
+            MoveList list = moves[i];
+            for (int j = 0; j < list.size(); j++) {
+                engine.makeMove(list.get(j));
+                hash ^= engine.hash();
+                engine.unmakeMove();
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Проверенный ход по клеткам с последующей отменой
+     */
+    @Benchmark
+    public long makeValidatedMove() {
+        long hash = 0;
+        for (int i = 0; i < engines.length; i++) {
+            if (moves[i].isEmpty()) {
+                continue;
+            }
+            int move = moves[i].get(0);
+            engines[i].makeMove(Square.of(Move.from(move)), Square.of(Move.to(move)));
+            hash ^= engines[i].hash();
+            engines[i].unmakeMove();
+        }
+        return hash;
+    }
+
+    @Benchmark
+    public void getBoardCopy(Blackhole blackhole) {
+        for (ChessEngine engine : engines) {
+            blackhole.consume(engine.getBoardCopy());
+        }
+    }
+}
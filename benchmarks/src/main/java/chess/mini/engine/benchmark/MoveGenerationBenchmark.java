@@ -0,0 +1,91 @@
+package chess.mini.engine.benchmark;
+
+import chess.mini.engine.ChessEngine;
+import chess.mini.engine.core.Board;
+import chess.mini.engine.core.MoveList;
+import chess.mini.engine.core.MoveValidator;
+import chess.mini.engine.core.PieceMoves;
+import chess.mini.engine.data.Color;
+import chess.mini.engine.data.Square;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Генерация ходов на всех позициях фазы: возможные ходы PieceMoves и легальные ходы MoveValidator
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveGenerationBenchmark {
+
+    @Param({BenchmarkPositions.OPENING, BenchmarkPositions.MIDDLEGAME, BenchmarkPositions.ENDGAME})
+    public String position;
+
+    private Board[] boards;
+    private Color[] sides;
+    private final MoveList moves = new MoveList();
+
+    @Setup
+    public void setup() {
+        ChessEngine[] engines = BenchmarkPositions.create(position);
+        boards = new Board[engines.length];
+        sides = new Color[engines.length];
+        for (int i = 0; i < engines.length; i++) {
+            boards[i] = engines[i].getBoard();
+            sides[i] = engines[i].getSideToMove();
+        }
+    }
+
+    @Benchmark
+    public int pseudoLegalMoves() {
+        int count = 0;
+        for (int i = 0; i < boards.length; i++) {
+            moves.clear();
+            PieceMoves.generateMoves(sides[i], boards[i], moves);
+            count += moves.size();
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int legalMoves() {
+        int count = 0;
+        for (int i = 0; i < boards.length; i++) {
+            moves.clear();
+            MoveValidator.getLegalMoves(sides[i], boards[i], moves);
+            count += moves.size();
+        }
+        return count;
+    }
+
+    /**
+     * Старый API со списками клеток - для сравнения аллокаций
+     */
+    @Benchmark
+    public void legalMovesAsSquareLists(Blackhole blackhole) {
+        for (int i = 0; i < boards.length; i++) {
+            Board board = boards[i];
+            Color side = sides[i];
+            for (long pieces = board.pieces(side); pieces != 0; pieces &= pieces - 1) {
+                Square from = Square.of(Long.numberOfTrailingZeros(pieces));
+                blackhole.consume(PieceMoves.generateMoves(from, board.getPiece(from.index()), board));
+                blackhole.consume(MoveValidator.getLegalMoves(from, board.getPiece(from.index()), side, board));
+            }
+        }
+    }
+}
@@ -3,19 +3,60 @@ package chess.mini.engine;
 import chess.mini.engine.core.AttackChecker;
 import chess.mini.engine.core.Board;
 import chess.mini.engine.core.CheckDetector;
+import chess.mini.engine.core.Move;
+import chess.mini.engine.core.MoveList;
 import chess.mini.engine.core.MoveValidator;
+import chess.mini.engine.core.PieceMoves;
 import chess.mini.engine.data.Color;
 import chess.mini.engine.data.Piece;
+import chess.mini.engine.data.PieceType;
+import chess.mini.engine.data.Position;
 import chess.mini.engine.data.Square;
+import chess.mini.engine.notation.Fen;
 
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Основной класс шахматного движка
  */
 public class ChessEngine {
+    private static final int INITIAL_STACK_SIZE = 256;
+    private static final long LIGHT_SQUARES = 0x55AA55AA55AA55AAL;
+
     private Board board;
-    private Color sideToMove;
+
+    // Права на рокировку, которые сохраняются после хода с клетки или на клетку:
+    // ход короля или ладьи, а также взятие ладьи снимают соответствующие права
+    private static final int[] CASTLING_MASKS = new int[64];
+
+    static {
+        Arrays.fill(CASTLING_MASKS, Board.ALL_CASTLING);
+        CASTLING_MASKS[0] &= ~Board.WHITE_QUEENSIDE;
+        CASTLING_MASKS[7] &= ~Board.WHITE_KINGSIDE;
+        CASTLING_MASKS[4] &= ~(Board.WHITE_KINGSIDE | Board.WHITE_QUEENSIDE);
+        CASTLING_MASKS[56] &= ~Board.BLACK_QUEENSIDE;
+        CASTLING_MASKS[63] &= ~Board.BLACK_KINGSIDE;
+        CASTLING_MASKS[60] &= ~(Board.BLACK_KINGSIDE | Board.BLACK_QUEENSIDE);
+    }
+
+    // Стек записей отмены: биты 0-15 - ход, 16-19 - индекс взятой фигуры + 1 (0 - взятия не было),
+    // 20-23 - права на рокировку до хода, 24-30 - клетка взятия на проходе до хода + 1,
+    // 32-47 - счетчик полуходов до хода
+    private long[] undoStack = new long[INITIAL_STACK_SIZE];
+    private int ply;
+
+    // История ключей Zobrist: keyHistory[i] - позиция перед ходом i
+    private long[] keyHistory = new long[INITIAL_STACK_SIZE];
+    // Фильтр повторений: сколько позиций истории попало в каждую корзину по младшим битам ключа.
+    // Ноль в корзине означает, что позиции точно не было, и историю можно не просматривать.
+    // Создается при первом ходе, чтобы движки без истории не платили за него памятью
+    private static final int REPETITION_FILTER_SIZE = 1 << 10;
+    private char[] repetitionFilter;
+
+    private final MoveList scratchMoves = new MoveList();
 
     public ChessEngine() {
         reset();
@@ -23,7 +64,24 @@ public class ChessEngine {
 
     public ChessEngine(Board board, Color sideToMove) {
         this.board = board;
-        this.sideToMove = sideToMove;
+        this.board.setSideToMove(sideToMove);
+        this.ply = 0;
+    }
+
+    /**
+     * Создает движок из позиции в нотации FEN
+     */
+    public static ChessEngine fromFen(String fen) {
+        Board board = Fen.parse(fen);
+        return new ChessEngine(board, board.getSideToMove());
+    }
+
+    /**
+     * Создает движок из неизменяемого снимка позиции
+     */
+    public static ChessEngine fromPosition(Position position) {
+        Board board = Board.of(position);
+        return new ChessEngine(board, board.getSideToMove());
     }
 
     /**
@@ -31,7 +89,8 @@ public class ChessEngine {
      */
     public void reset() {
         board = Board.initial();
-        sideToMove = Color.WHITE;
+        ply = 0;
+        repetitionFilter = null;
     }
 
     /**
@@ -45,7 +104,7 @@ public class ChessEngine {
      * Получает сторону, которая должна ходить
      */
     public Color getSideToMove() {
-        return sideToMove;
+        return board.getSideToMove();
     }
 
     /**
@@ -53,46 +112,313 @@ public class ChessEngine {
      */
     public List<Square> getLegalMoves(Square from) {
         Piece piece = board.getPiece(from.rank(), from.file());
-        return MoveValidator.getLegalMoves(from, piece, sideToMove, board);
+        return MoveValidator.getLegalMoves(from, piece, board.getSideToMove(), board);
+    }
+
+    /**
+     * Записывает в буфер все легальные ходы стороны, которая должна ходить
+     */
+    public void getLegalMoves(MoveList moves) {
+        MoveValidator.getLegalMoves(board.getSideToMove(), board, moves);
     }
 
     /**
      * Проверяет, находится ли король под шахом
      */
     public boolean inCheck() {
-        return CheckDetector.inCheck(sideToMove, board);
+        return CheckDetector.inCheck(board.getSideToMove(), board);
     }
 
     /**
      * Проверяет, находится ли король под матом
      */
     public boolean isCheckmate() {
-        return CheckDetector.isCheckmate(sideToMove, board);
+        return CheckDetector.isCheckmate(board.getSideToMove(), board);
     }
 
     /**
      * Проверяет, находится ли король под патом
      */
     public boolean isStalemate() {
-        return CheckDetector.isStalemate(sideToMove, board);
+        return CheckDetector.isStalemate(board.getSideToMove(), board);
+    }
+
+    /**
+     * Сколько раз текущая позиция уже встречалась в истории ходов.
+     * Просматриваются только позиции после последнего взятия или хода пешки
+     * и только если фильтр повторений допускает совпадение
+     */
+    public int repetitionCount() {
+        long key = board.hash();
+        if (repetitionFilter == null || repetitionFilter[filterIndex(key)] == 0) {
+            return 0;
+        }
+        int count = 0;
+        int limit = Math.max(0, ply - board.getHalfmoveClock());
+        for (int i = ply - 2; i >= limit; i -= 2) {
+            if (keyHistory[i] == key) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Позиция уже встречалась в истории (для поиска повторение - уже ничья)
+     */
+    public boolean isRepetition() {
+        return repetitionCount() > 0;
+    }
+
+    /**
+     * Позиция повторилась в третий раз
+     */
+    public boolean isThreefoldRepetition() {
+        return repetitionCount() >= 2;
     }
 
     /**
-     * Выполняет ход
+     * Сто полуходов без взятий и ходов пешек; мат последним ходом имеет приоритет
+     */
+    public boolean isFiftyMoveRule() {
+        return board.getHalfmoveClock() >= 100 && !isCheckmate();
+    }
+
+    /**
+     * Ни одна из сторон не может поставить мат: короли и не больше одной легкой фигуры
+     * или по слону у каждой стороны на полях одного цвета
+     */
+    public boolean isInsufficientMaterial() {
+        for (Color color : Color.values()) {
+            if (board.pieces(PieceType.PAWN, color) != 0 || board.pieces(PieceType.ROOK, color) != 0
+                    || board.pieces(PieceType.QUEEN, color) != 0) {
+                return false;
+            }
+        }
+        int minors = board.pieceCount(Color.WHITE) + board.pieceCount(Color.BLACK) - 2;
+        if (minors <= 1) {
+            return true;
+        }
+        long whiteBishops = board.pieces(PieceType.BISHOP, Color.WHITE);
+        long blackBishops = board.pieces(PieceType.BISHOP, Color.BLACK);
+        if (minors == 2 && Long.bitCount(whiteBishops) == 1 && Long.bitCount(blackBishops) == 1) {
+            return ((whiteBishops & LIGHT_SQUARES) != 0) == ((blackBishops & LIGHT_SQUARES) != 0);
+        }
+        return false;
+    }
+
+    /**
+     * Ничья по правилам: пат, троекратное повторение, правило 50 ходов или недостаточный материал
+     */
+    public boolean isDraw() {
+        return isStalemate() || isThreefoldRepetition() || isFiftyMoveRule() || isInsufficientMaterial();
+    }
+
+    /**
+     * Выполняет ход. Пешка, дошедшая до последней горизонтали, превращается в ферзя
      */
     public void makeMove(Square from, Square to) {
-        // Валидация
-        if (!MoveValidator.isValidMove(from, to, sideToMove, board)) {
-            throw new IllegalArgumentException("Недопустимый ход");
+        makeMove(from, to, PieceType.QUEEN);
+    }
+
+    /**
+     * Выполняет ход с превращением пешки в заданную фигуру (для остальных ходов promotion не используется)
+     */
+    public void makeMove(Square from, Square to, PieceType promotion) {
+        // Валидация: ищем ход среди легальных ходов фигуры
+        scratchMoves.clear();
+        MoveValidator.getLegalMoves(from.index(), board.getSideToMove(), board, scratchMoves);
+        for (int i = 0; i < scratchMoves.size(); i++) {
+            int move = scratchMoves.get(i);
+            if (Move.to(move) == to.index() && (!Move.isPromotion(move) || Move.promotionType(move) == promotion)) {
+                makeMove(move);
+                return;
+            }
+        }
+        throw new IllegalArgumentException("Недопустимый ход");
+    }
+
+    /**
+     * Выполняет упакованный ход без проверки легальности и кладет запись отмены на стек
+     */
+    public void makeMove(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        Piece piece = board.getPiece(from);
+        Color side = piece.color();
+        int capturedSquare = Move.isEnPassant(move) ? to + ((side == Color.WHITE) ? -8 : 8) : to;
+        Piece captured = board.getPiece(capturedSquare);
+
+        if (ply == undoStack.length) {
+            undoStack = Arrays.copyOf(undoStack, undoStack.length * 2);
+            keyHistory = Arrays.copyOf(keyHistory, keyHistory.length * 2);
         }
+        if (repetitionFilter == null) {
+            repetitionFilter = new char[REPETITION_FILTER_SIZE];
+        }
+        long key = board.hash();
+        keyHistory[ply] = key;
+        repetitionFilter[filterIndex(key)]++;
+        undoStack[ply++] = (move & 0xFFFFL)
+                | ((long) (captured == null ? 0 : captured.index() + 1) << 16)
+                | ((long) board.getCastlingRights() << 20)
+                | ((long) (board.getEnPassantSquare() + 1) << 24)
+                | ((long) (board.getHalfmoveClock() & 0xFFFF) << 32);
 
         // Выполнение хода
-        Piece piece = board.getPiece(from.rank(), from.file());
-        board.setPiece(from.rank(), from.file(), null);
-        board.setPiece(to.rank(), to.file(), piece);
+        board.setPiece(from, null);
+        if (capturedSquare != to) {
+            board.setPiece(capturedSquare, null);
+        }
+        PieceType promotion = Move.promotionType(move);
+        board.setPiece(to, promotion == null ? piece : Piece.of(promotion, side));
+
+        // При рокировке ладья перепрыгивает через короля
+        int flags = Move.flags(move);
+        if (flags == Move.KING_CASTLE) {
+            board.setPiece(from + 1, board.getPiece(from + 3));
+            board.setPiece(from + 3, null);
+        } else if (flags == Move.QUEEN_CASTLE) {
+            board.setPiece(from - 1, board.getPiece(from - 4));
+            board.setPiece(from - 4, null);
+        }
+
+        board.setCastlingRights(board.getCastlingRights() & CASTLING_MASKS[from] & CASTLING_MASKS[to]);
+        // Клетка взятия на проходе запоминается, только если соперник может ею воспользоваться
+        int enPassant = (from + to) / 2;
+        board.setEnPassantSquare(flags == Move.DOUBLE_PAWN_PUSH
+                && PieceMoves.canCaptureEnPassant(enPassant, side.opposite(), board) ? enPassant : -1);
+        board.setHalfmoveClock(captured != null || piece.type() == PieceType.PAWN ? 0 : board.getHalfmoveClock() + 1);
+        if (side == Color.BLACK) {
+            board.setFullmoveNumber(board.getFullmoveNumber() + 1);
+        }
 
         // Смена стороны
-        sideToMove = (sideToMove == Color.WHITE) ? Color.BLACK : Color.WHITE;
+        board.setSideToMove(side.opposite());
+    }
+
+    /**
+     * Отменяет последний ход, выполненный через makeMove
+     */
+    public void unmakeMove() {
+        if (ply == 0) {
+            throw new IllegalStateException("Нет ходов для отмены");
+        }
+
+        long record = undoStack[--ply];
+        repetitionFilter[filterIndex(keyHistory[ply])]--;
+        int move = (int) (record & 0xFFFF);
+        int captured = (int) ((record >>> 16) & 0xF);
+
+        int from = Move.from(move);
+        int to = Move.to(move);
+        Color side = board.getSideToMove().opposite();
+        Piece piece = Move.isPromotion(move) ? Piece.of(PieceType.PAWN, side) : board.getPiece(to);
+
+        int flags = Move.flags(move);
+        if (flags == Move.KING_CASTLE) {
+            board.setPiece(from + 3, board.getPiece(from + 1));
+            board.setPiece(from + 1, null);
+        } else if (flags == Move.QUEEN_CASTLE) {
+            board.setPiece(from - 4, board.getPiece(from - 1));
+            board.setPiece(from - 1, null);
+        }
+
+        board.setPiece(from, piece);
+        Piece capturedPiece = captured == 0 ? null : Piece.fromIndex(captured - 1);
+        if (flags == Move.EN_PASSANT) {
+            board.setPiece(to, null);
+            board.setPiece(to + ((side == Color.WHITE) ? -8 : 8), capturedPiece);
+        } else {
+            board.setPiece(to, capturedPiece);
+        }
+
+        board.setCastlingRights((int) ((record >>> 20) & 0xF));
+        board.setEnPassantSquare((int) ((record >>> 24) & 0x7F) - 1);
+        board.setHalfmoveClock((int) ((record >>> 32) & 0xFFFF));
+        if (side == Color.BLACK) {
+            board.setFullmoveNumber(board.getFullmoveNumber() - 1);
+        }
+        board.setSideToMove(side);
+    }
+
+    private static int filterIndex(long key) {
+        return (int) key & (REPETITION_FILTER_SIZE - 1);
+    }
+
+    /**
+     * Количество ходов, которые можно отменить
+     */
+    public int getPly() {
+        return ply;
+    }
+
+    /**
+     * Упакованный ход из истории: 0 - первый ход, getPly() - 1 - последний
+     */
+    public int getMove(int index) {
+        if (index < 0 || index >= ply) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return (int) (undoStack[index] & 0xFFFF);
+    }
+
+    /**
+     * Считает число листовых узлов дерева легальных ходов заданной глубины (perft)
+     */
+    public long perft(int depth) {
+        if (depth <= 0) {
+            return 1;
+        }
+        MoveList[] lists = new MoveList[depth + 1];
+        for (int i = 1; i <= depth; i++) {
+            lists[i] = new MoveList();
+        }
+        return perft(depth, lists);
+    }
+
+    /**
+     * Perft с разбивкой по первым ходам: ход в координатной нотации - число листовых узлов
+     */
+    public Map<String, Long> perftDivide(int depth) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        if (depth <= 0) {
+            return result;
+        }
+        MoveList[] lists = new MoveList[depth + 1];
+        for (int i = 1; i <= depth; i++) {
+            lists[i] = new MoveList();
+        }
+
+        MoveList rootMoves = lists[depth];
+        getLegalMoves(rootMoves);
+        for (int i = 0; i < rootMoves.size(); i++) {
+            int move = rootMoves.get(i);
+            makeMove(move);
+            result.put(Move.toString(move), perft(depth - 1, lists));
+            unmakeMove();
+        }
+        return result;
+    }
+
+    private long perft(int depth, MoveList[] lists) {
+        if (depth == 0) {
+            return 1;
+        }
+        MoveList moves = lists[depth];
+        moves.clear();
+        getLegalMoves(moves);
+        if (depth == 1) {
+            return moves.size(); // На последнем уровне достаточно посчитать ходы
+        }
+
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            makeMove(moves.get(i));
+            nodes += perft(depth - 1, lists);
+            unmakeMove();
+        }
+        return nodes;
     }
 
     /**
@@ -102,19 +428,55 @@ public class ChessEngine {
         return AttackChecker.isSquareAttacked(target, byColor, board);
     }
 
+    /**
+     * Текущая позиция в нотации FEN
+     */
+    public String toFen() {
+        return Fen.toFen(board);
+    }
+
+    /**
+     * Неизменяемый снимок текущей позиции за O(1): его можно раздавать
+     * другим потокам, пока движок продолжает делать ходы
+     */
+    public Position getPosition() {
+        return board.toPosition();
+    }
+
+    /**
+     * Хеш Zobrist текущей позиции
+     */
+    public long hash() {
+        return board.hash();
+    }
+
+    /**
+     * Создает независимую копию движка с той же позицией для работы в другом потоке.
+     * Копируется только история после последнего взятия или хода пешки - ровно столько,
+     * сколько нужно для распознавания повторений; более ранние ходы отменить нельзя
+     */
+    public ChessEngine copy() {
+        ChessEngine copy = new ChessEngine(getBoardCopy(), board.getSideToMove());
+        int window = Math.min(ply, board.getHalfmoveClock());
+        if (window > 0) {
+            int from = ply - window;
+            copy.undoStack = Arrays.copyOfRange(undoStack, from, from + Math.max(window, INITIAL_STACK_SIZE));
+            copy.keyHistory = Arrays.copyOfRange(keyHistory, from, from + Math.max(window, INITIAL_STACK_SIZE));
+            copy.repetitionFilter = new char[REPETITION_FILTER_SIZE];
+            for (int i = 0; i < window; i++) {
+                copy.repetitionFilter[filterIndex(copy.keyHistory[i])]++;
+            }
+            copy.ply = window;
+        }
+        return copy;
+    }
+
     /**
      * Получает копию доски
      */
     public Board getBoardCopy() {
         Board copy = new Board();
-        for (int rank = 0; rank < 8; rank++) {
-            for (int file = 0; file < 8; file++) {
-                Piece piece = board.getPiece(rank, file);
-                if (piece != null) {
-                    copy.setPiece(rank, file, new Piece(piece.type(), piece.color()));
-                }
-            }
-        }
+        copy.copyFrom(board);
         return copy;
     }
 }
@@ -0,0 +1,151 @@
+package chess.mini.engine.analysis;
+
+import chess.mini.engine.core.Board;
+import chess.mini.engine.core.MoveList;
+import chess.mini.engine.core.MoveValidator;
+import chess.mini.engine.data.Color;
+import chess.mini.engine.eval.Evaluator;
+import chess.mini.engine.notation.PositionCodec;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Stream;
+
+/**
+ * Пакетный анализ позиций: легальные ходы, шах/мат/пат и оценка для каждой позиции.
+ * Пакет делится на диапазоны, которые обрабатываются задачами fork/join.
+ * Каждая задача работает на собственной доске и буфере ходов, куда копируется
+ * очередная позиция, поэтому входные доски только читаются и могут разделяться
+ * между потоками, а на позицию не выделяется ничего, кроме результата
+ */
+public class BatchAnalyzer {
+    // Число позиций, которое обрабатывается одной задачей без деления
+    private static final int LEAF_SIZE = 256;
+
+    // Рабочее состояние потоков, анализирующих потоки (Stream) позиций
+    private static final ThreadLocal<Worker> WORKERS = ThreadLocal.withInitial(Worker::new);
+
+    private final ForkJoinPool pool;
+
+    public BatchAnalyzer() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public BatchAnalyzer(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Анализирует позиции списка; результаты идут в том же порядке
+     */
+    public List<PositionAnalysis> analyze(List<Board> positions) {
+        PositionAnalysis[] results = new PositionAnalysis[positions.size()];
+        pool.invoke(new Task(results, 0, results.length, (index, board) -> board.copyFrom(positions.get(index))));
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Анализирует записи PositionCodec, идущие подряд от начала буфера до его limit.
+     * Записи декодируются прямо в доску задачи, без промежуточных объектов
+     */
+    public PositionAnalysis[] analyze(ByteBuffer positions) {
+        if (positions.limit() % PositionCodec.SIZE != 0) {
+            throw new IllegalArgumentException("Размер буфера не кратен " + PositionCodec.SIZE + " байтам");
+        }
+        PositionAnalysis[] results = new PositionAnalysis[positions.limit() / PositionCodec.SIZE];
+        pool.invoke(new Task(results, 0, results.length,
+                (index, board) -> PositionCodec.decode(positions, index * PositionCodec.SIZE, board)));
+        return results;
+    }
+
+    /**
+     * Анализирует поток позиций. Выполняется там, где выполняется терминальная операция:
+     * для параллельного потока - в его пуле, с отдельной рабочей доской на каждый поток
+     */
+    public static Stream<PositionAnalysis> analyze(Stream<Board> positions) {
+        return positions.map(board -> WORKERS.get().analyze(board));
+    }
+
+    /**
+     * Анализирует одну позицию; доска не изменяется
+     */
+    public static PositionAnalysis analyze(Board board) {
+        return WORKERS.get().analyze(board);
+    }
+
+    @FunctionalInterface
+    private interface Loader {
+        void load(int index, Board board);
+    }
+
+    /**
+     * Доска и буфер ходов, переиспользуемые для всех позиций одного исполнителя
+     */
+    private static class Worker {
+        private final Board board = new Board();
+        private final MoveList moves = new MoveList();
+        private final Evaluator evaluator = new Evaluator();
+
+        PositionAnalysis analyze(Board position) {
+            board.copyFrom(position);
+            return analyzeLoaded();
+        }
+
+        PositionAnalysis analyzeLoaded() {
+            Color side = board.getSideToMove();
+            moves.clear();
+            MoveValidator.getLegalMoves(side, board, moves);
+
+            boolean inCheck = board.checkers(side) != 0;
+            PositionStatus status;
+            if (moves.isEmpty()) {
+                status = inCheck ? PositionStatus.CHECKMATE : PositionStatus.STALEMATE;
+            } else {
+                status = inCheck ? PositionStatus.CHECK : PositionStatus.NORMAL;
+            }
+
+            int[] legal = new int[moves.size()];
+            for (int i = 0; i < legal.length; i++) {
+                legal[i] = moves.get(i);
+            }
+            return new PositionAnalysis(board.hash(), legal, status, evaluator.evaluate(board));
+        }
+    }
+
+    /**
+     * Анализ диапазона [from, to) пакета
+     * ForkJoinTask сериализуем формально; задача живет только внутри пула и не сериализуется
+     */
+    @SuppressWarnings("serial")
+    private static class Task extends RecursiveAction {
+        private final PositionAnalysis[] results;
+        private final int from;
+        private final int to;
+        private final Loader loader;
+
+        Task(PositionAnalysis[] results, int from, int to, Loader loader) {
+            this.results = results;
+            this.from = from;
+            this.to = to;
+            this.loader = loader;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEAF_SIZE) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Task(results, from, middle, loader), new Task(results, middle, to, loader));
+                return;
+            }
+
+            Worker worker = new Worker();
+            for (int index = from; index < to; index++) {
+                loader.load(index, worker.board);
+                results[index] = worker.analyzeLoaded();
+            }
+        }
+    }
+}
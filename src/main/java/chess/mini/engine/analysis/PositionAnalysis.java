@@ -0,0 +1,12 @@
+package chess.mini.engine.analysis;
+
+/**
+ * Результат анализа одной позиции.
+ *
+ * @param hash       хеш Zobrist позиции
+ * @param moves      легальные ходы в упакованном виде Move
+ * @param status     шах, мат, пат или обычная позиция
+ * @param evaluation оценка с точки зрения стороны, которая ходит
+ */
+public record PositionAnalysis(long hash, int[] moves, PositionStatus status, int evaluation) {
+}
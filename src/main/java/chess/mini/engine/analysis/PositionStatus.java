@@ -0,0 +1,18 @@
+package chess.mini.engine.analysis;
+
+/**
+ * Состояние позиции для стороны, которая ходит
+ */
+public enum PositionStatus {
+    NORMAL,
+    CHECK,
+    CHECKMATE,
+    STALEMATE;
+
+    /**
+     * Партия в позиции закончена (мат или пат)
+     */
+    public boolean isTerminal() {
+        return this == CHECKMATE || this == STALEMATE;
+    }
+}
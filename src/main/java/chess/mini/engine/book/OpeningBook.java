@@ -0,0 +1,167 @@
+package chess.mini.engine.book;
+
+import chess.mini.engine.ChessEngine;
+import chess.mini.engine.core.Move;
+import chess.mini.engine.core.MoveList;
+import chess.mini.engine.core.MoveValidator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.random.RandomGenerator;
+
+/**
+ * Дебютная книга: отсортированный по ключу Zobrist файл записей по 16 байт
+ * (ключ - 8 байт, упакованный ход - 2, вес - 4, резерв - 2), отображенный в память.
+ * Поиск позиции - бинарный поиск прямо по отображению, книга не загружается в кучу.
+ * Чтение идет по абсолютным смещениям, поэтому одну книгу можно разделять
+ * между любым числом движков и потоков
+ */
+public class OpeningBook {
+    public static final int ENTRY_SIZE = 16;
+
+    private static final int MOVE_OFFSET = 8;
+    private static final int WEIGHT_OFFSET = 10;
+
+    private final ByteBuffer entries;
+    private final int size;
+
+    private OpeningBook(ByteBuffer entries) {
+        if (entries.capacity() % ENTRY_SIZE != 0) {
+            throw new IllegalArgumentException("Размер книги не кратен " + ENTRY_SIZE + " байтам");
+        }
+        this.entries = entries;
+        this.size = entries.capacity() / ENTRY_SIZE;
+    }
+
+    /**
+     * Отображает файл книги в память
+     */
+    public static OpeningBook open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Книга больше 2 ГБ: " + path);
+            }
+            return new OpeningBook(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Книга поверх готового буфера записей (например, собранной в памяти)
+     */
+    public static OpeningBook wrap(ByteBuffer entries) {
+        return new OpeningBook(entries.slice());
+    }
+
+    /**
+     * Число записей в книге
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Записывает в буфер ходы книги для позиции с ключом key (по убыванию веса)
+     * и возвращает их суммарный вес
+     */
+    public long lookup(long key, MoveList moves) {
+        long total = 0;
+        for (int i = firstEntry(key); i < size && key(i) == key; i++) {
+            moves.add(move(i));
+            total += weight(i);
+        }
+        return total;
+    }
+
+    /**
+     * Ход книги с наибольшим весом, легальный в позиции движка, или Move.NONE
+     */
+    public int bestMove(ChessEngine engine) {
+        return bestMove(engine, new MoveList());
+    }
+
+    /**
+     * То же, что bestMove(ChessEngine), но для проверки легальности использует
+     * буфер вызывающего scratch (его содержимое затирается)
+     */
+    public int bestMove(ChessEngine engine, MoveList scratch) {
+        long key = engine.hash();
+        for (int i = firstEntry(key); i < size && key(i) == key; i++) {
+            if (isLegal(engine, move(i), scratch)) {
+                return move(i);
+            }
+        }
+        return Move.NONE;
+    }
+
+    /**
+     * Случайный ход книги с вероятностью, пропорциональной весу, или Move.NONE.
+     * Ходы, нелегальные в позиции (коллизия ключей), пропускаются
+     */
+    public int pickMove(ChessEngine engine, RandomGenerator random) {
+        return pickMove(engine, random, new MoveList());
+    }
+
+    /**
+     * То же, что pickMove(ChessEngine, RandomGenerator), но с буфером вызывающего scratch
+     * для проверки легальности (его содержимое затирается)
+     */
+    public int pickMove(ChessEngine engine, RandomGenerator random, MoveList scratch) {
+        long key = engine.hash();
+        int first = firstEntry(key);
+        long total = 0;
+        for (int i = first; i < size && key(i) == key; i++) {
+            total += weight(i);
+        }
+        if (total == 0) {
+            return Move.NONE;
+        }
+
+        long target = random.nextLong(total);
+        for (int i = first; i < size && key(i) == key; i++) {
+            target -= weight(i);
+            if (target < 0) {
+                int move = move(i);
+                return isLegal(engine, move, scratch) ? move : bestMove(engine, scratch);
+            }
+        }
+        return Move.NONE;
+    }
+
+    /**
+     * Индекс первой записи с ключом не меньше key
+     */
+    private int firstEntry(long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (key(mid) < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private long key(int index) {
+        return entries.getLong(index * ENTRY_SIZE);
+    }
+
+    private int move(int index) {
+        return entries.getShort(index * ENTRY_SIZE + MOVE_OFFSET) & 0xFFFF;
+    }
+
+    private long weight(int index) {
+        return entries.getInt(index * ENTRY_SIZE + WEIGHT_OFFSET) & 0xFFFFFFFFL;
+    }
+
+    private static boolean isLegal(ChessEngine engine, int move, MoveList scratch) {
+        scratch.clear();
+        MoveValidator.getLegalMoves(Move.from(move), engine.getSideToMove(), engine.getBoard(), scratch);
+        return scratch.contains(move);
+    }
+}
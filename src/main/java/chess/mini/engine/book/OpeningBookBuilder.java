@@ -0,0 +1,111 @@
+package chess.mini.engine.book;
+
+import chess.mini.engine.ChessEngine;
+import chess.mini.engine.data.Color;
+import chess.mini.engine.notation.PgnGame;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Построение дебютной книги из партий PGN.
+ * Вес хода - сумма очков сыгравшей его стороны: победа 2, ничья или неизвестный результат 1,
+ * поражение 0. Ходы с нулевым весом в книгу не попадают.
+ * Экземпляр не потокобезопасен
+ */
+public class OpeningBookBuilder {
+    private static final int WIN = 2;
+    private static final int DRAW = 1;
+
+    private final int maxPly;
+    private final Map<Entry, Integer> weights = new HashMap<>();
+
+    private record Entry(long key, int move) {
+    }
+
+    /**
+     * @param maxPly сколько первых полуходов каждой партии заносится в книгу
+     */
+    public OpeningBookBuilder(int maxPly) {
+        this.maxPly = maxPly;
+    }
+
+    /**
+     * Добавляет первые maxPly полуходов партии
+     */
+    public void add(PgnGame game) {
+        int whiteScore = switch (game.result()) {
+            case "1-0" -> WIN;
+            case "0-1" -> 0;
+            default -> DRAW;
+        };
+
+        ChessEngine engine = game.startPosition();
+        int[] moves = game.moves();
+        for (int ply = 0; ply < Math.min(maxPly, moves.length); ply++) {
+            int score = engine.getSideToMove() == Color.WHITE ? whiteScore : WIN - whiteScore;
+            if (score > 0) {
+                weights.merge(new Entry(engine.hash(), moves[ply]), score, OpeningBookBuilder::addSaturated);
+            }
+            engine.makeMove(moves[ply]);
+        }
+    }
+
+    /**
+     * Число различных пар (позиция, ход)
+     */
+    public int size() {
+        return weights.size();
+    }
+
+    /**
+     * Записи книги, отсортированные по ключу, а для одного ключа - по убыванию веса
+     */
+    public ByteBuffer toBuffer() {
+        List<Map.Entry<Entry, Integer>> sorted = new ArrayList<>(weights.entrySet());
+        sorted.sort(Comparator.<Map.Entry<Entry, Integer>>comparingLong(entry -> entry.getKey().key())
+                .thenComparing(Map.Entry::getValue, Comparator.reverseOrder()));
+
+        ByteBuffer buffer = ByteBuffer.allocate(sorted.size() * OpeningBook.ENTRY_SIZE);
+        for (Map.Entry<Entry, Integer> entry : sorted) {
+            buffer.putLong(entry.getKey().key());
+            buffer.putShort((short) entry.getKey().move());
+            buffer.putInt(entry.getValue());
+            buffer.putShort((short) 0);
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Записывает книгу в файл
+     */
+    public void write(Path path) throws IOException {
+        ByteBuffer buffer = toBuffer();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Книга в памяти без записи на диск
+     */
+    public OpeningBook build() {
+        return OpeningBook.wrap(toBuffer());
+    }
+
+    private static int addSaturated(int a, int b) {
+        int sum = a + b;
+        return sum < 0 ? Integer.MAX_VALUE : sum;
+    }
+}
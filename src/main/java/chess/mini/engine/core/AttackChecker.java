@@ -1,115 +1,130 @@
 package chess.mini.engine.core;
 
 import chess.mini.engine.data.Color;
-import chess.mini.engine.data.Piece;
 import chess.mini.engine.data.PieceType;
 import chess.mini.engine.data.Square;
+import chess.mini.engine.metrics.Counter;
+import chess.mini.engine.metrics.Metrics;
 
 /**
  * Класс для проверки атак фигур на клетки
  */
 public class AttackChecker {
-    
+
     /**
      * Проверяет, атакуется ли указанная клетка фигурами заданного цвета
      */
     public static boolean isSquareAttacked(Square target, Color byColor, Board board) {
-        // Проверяем все фигуры заданного цвета
-        for (int rank = 0; rank < 8; rank++) {
-            for (int file = 0; file < 8; file++) {
-                Piece piece = board.getPiece(rank, file);
-                if (piece != null && piece.color() == byColor) {
-                    if (canPieceAttackSquare(new Square(file, rank), target, piece.type(), piece.color(), board)) {
-                        return true;
-                    }
-                }
-            }
-        }
-        return false;
+        return isSquareAttacked(Bitboards.square(target.rank(), target.file()), byColor, board);
     }
 
     /**
-     * Проверяет, может ли фигура заданного типа атаковать указанную клетку
+     * Проверяет, атакуется ли клетка с индексом square фигурами заданного цвета.
+     * Использует карту атак, закэшированную на доске: повторные запросы - поиск по маске
      */
-    public static boolean canPieceAttackSquare(Square from, Square target, PieceType pieceType, Color color, Board board) {
-        return switch (pieceType) {
-            case PAWN -> canPawnAttackSquare(from, target, color);
-            case ROOK -> canRookAttackSquare(from, target, board);
-            case BISHOP -> canBishopAttackSquare(from, target, board);
-            case KNIGHT -> canKnightAttackSquare(from, target);
-            case QUEEN -> canQueenAttackSquare(from, target, board);
-            case KING -> canKingAttackSquare(from, target);
-        };
+    public static boolean isSquareAttacked(int square, Color byColor, Board board) {
+        return (board.attacksBy(byColor) & Bitboards.bit(square)) != 0;
     }
 
-    private static boolean canPawnAttackSquare(Square from, Square target, Color color) {
-        int direction = (color == Color.WHITE) ? 1 : -1;
-
-        // Проверяем диагональные атаки пешки
-        for (int fileOffset : new int[]{-1, 1}) {
-            int newFile = from.file() + fileOffset;
-            int newRank = from.rank() + direction;
-
-            if (newFile == target.file() && newRank == target.rank()) {
-                return true;
-            }
+    /**
+     * Битборд всех клеток, атакуемых фигурами заданного цвета
+     */
+    public static long attackMap(Color color, Board board) {
+        Metrics.increment(Counter.ATTACK_SCANS);
+        long occupied = board.occupied();
+
+        // Атаки пешек считаем сдвигом всего битборда
+        long pawns = board.pieces(PieceType.PAWN, color);
+        long attacks = (color == Color.WHITE)
+                ? ((pawns << 7) & ~Bitboards.FILE_H) | ((pawns << 9) & ~Bitboards.FILE_A)
+                : ((pawns >>> 9) & ~Bitboards.FILE_H) | ((pawns >>> 7) & ~Bitboards.FILE_A);
+
+        for (long knights = board.pieces(PieceType.KNIGHT, color); knights != 0; knights &= knights - 1) {
+            attacks |= Bitboards.knightAttacks(Long.numberOfTrailingZeros(knights));
         }
-        return false;
-    }
-
-    private static boolean canRookAttackSquare(Square from, Square target, Board board) {
-        // Проверяем горизонтальные и вертикальные линии
-        if (from.file() != target.file() && from.rank() != target.rank()) {
-            return false;
+        long queens = board.pieces(PieceType.QUEEN, color);
+        for (long bishops = board.pieces(PieceType.BISHOP, color) | queens; bishops != 0; bishops &= bishops - 1) {
+            attacks |= Bitboards.bishopAttacks(Long.numberOfTrailingZeros(bishops), occupied);
         }
-
-        return isPathClear(from, target, board);
-    }
-
-    private static boolean canBishopAttackSquare(Square from, Square target, Board board) {
-        // Проверяем диагональные линии
-        if (Math.abs(from.file() - target.file()) != Math.abs(from.rank() - target.rank())) {
-            return false;
+        for (long rooks = board.pieces(PieceType.ROOK, color) | queens; rooks != 0; rooks &= rooks - 1) {
+            attacks |= Bitboards.rookAttacks(Long.numberOfTrailingZeros(rooks), occupied);
         }
-
-        return isPathClear(from, target, board);
+        for (long kings = board.pieces(PieceType.KING, color); kings != 0; kings &= kings - 1) {
+            attacks |= Bitboards.kingAttacks(Long.numberOfTrailingZeros(kings));
+        }
+        return attacks;
     }
 
-    private static boolean canKnightAttackSquare(Square from, Square target) {
-        int rankDiff = Math.abs(from.rank() - target.rank());
-        int fileDiff = Math.abs(from.file() - target.file());
-        return (rankDiff == 2 && fileDiff == 1) || (rankDiff == 1 && fileDiff == 2);
+    /**
+     * Битборд фигур заданного цвета, атакующих клетку при заданной маске занятых клеток
+     */
+    public static long attackersTo(int square, Color byColor, Board board, long occupied) {
+        Metrics.increment(Counter.ATTACK_SCANS);
+        long queens = board.pieces(PieceType.QUEEN, byColor);
+        return (Bitboards.pawnAttacks(byColor.opposite(), square) & board.pieces(PieceType.PAWN, byColor))
+                | (Bitboards.knightAttacks(square) & board.pieces(PieceType.KNIGHT, byColor))
+                | (Bitboards.kingAttacks(square) & board.pieces(PieceType.KING, byColor))
+                | (Bitboards.rookAttacks(square, occupied) & (board.pieces(PieceType.ROOK, byColor) | queens))
+                | (Bitboards.bishopAttacks(square, occupied) & (board.pieces(PieceType.BISHOP, byColor) | queens));
     }
 
-    private static boolean canQueenAttackSquare(Square from, Square target, Board board) {
-        // Ферзь может ходить как ладья или слон
-        return canRookAttackSquare(from, target, board) || canBishopAttackSquare(from, target, board);
+    /**
+     * Битборд фигур обоих цветов, атакующих клетку при заданной маске занятых клеток.
+     * Фигуры, снятые с маски occupied, в результат не попадают
+     */
+    public static long attackersTo(int square, Board board, long occupied) {
+        Metrics.increment(Counter.ATTACK_SCANS);
+        long queens = board.pieces(PieceType.QUEEN, Color.WHITE) | board.pieces(PieceType.QUEEN, Color.BLACK);
+        long rooks = board.pieces(PieceType.ROOK, Color.WHITE) | board.pieces(PieceType.ROOK, Color.BLACK) | queens;
+        long bishops = board.pieces(PieceType.BISHOP, Color.WHITE) | board.pieces(PieceType.BISHOP, Color.BLACK) | queens;
+        long knights = board.pieces(PieceType.KNIGHT, Color.WHITE) | board.pieces(PieceType.KNIGHT, Color.BLACK);
+        long kings = board.pieces(PieceType.KING, Color.WHITE) | board.pieces(PieceType.KING, Color.BLACK);
+        return ((Bitboards.pawnAttacks(Color.BLACK, square) & board.pieces(PieceType.PAWN, Color.WHITE))
+                | (Bitboards.pawnAttacks(Color.WHITE, square) & board.pieces(PieceType.PAWN, Color.BLACK))
+                | (Bitboards.knightAttacks(square) & knights)
+                | (Bitboards.kingAttacks(square) & kings)
+                | (Bitboards.rookAttacks(square, occupied) & rooks)
+                | (Bitboards.bishopAttacks(square, occupied) & bishops)) & occupied;
     }
 
-    private static boolean canKingAttackSquare(Square from, Square target) {
-        int rankDiff = Math.abs(from.rank() - target.rank());
-        int fileDiff = Math.abs(from.file() - target.file());
-        return rankDiff <= 1 && fileDiff <= 1;
+    /**
+     * Атакующие клетку фигуры цвета вместе с рентгеновскими: дальнобойными фигурами,
+     * которые бьют клетку сквозь другие атакующие фигуры любого цвета на той же линии
+     * (батарея ладей, ферзь за слоном и т. п.). Для фигур соперника клетки это ее защитники
+     */
+    public static long xrayAttackersTo(int square, Color byColor, Board board) {
+        long occupied = board.occupied();
+        long attackers = attackersTo(square, board, occupied);
+        long found = attackers;
+        // Снимаем найденные фигуры и ищем открывшиеся за ними дальнобойные
+        while (found != 0) {
+            occupied &= ~found;
+            found = attackersTo(square, board, occupied) & ~attackers;
+            attackers |= found;
+        }
+        return attackers & board.pieces(byColor);
     }
 
     /**
-     * Проверяет, свободен ли путь между двумя клетками
+     * Проверяет, может ли фигура заданного типа атаковать указанную клетку
      */
-    private static boolean isPathClear(Square from, Square to, Board board) {
-        int rankStep = Integer.compare(to.rank(), from.rank());
-        int fileStep = Integer.compare(to.file(), from.file());
-
-        int currentRank = from.rank() + rankStep;
-        int currentFile = from.file() + fileStep;
-
-        while (currentRank != to.rank() || currentFile != to.file()) {
-            if (board.getPiece(currentRank, currentFile) != null) {
-                return false; // Путь заблокирован
-            }
-            currentRank += rankStep;
-            currentFile += fileStep;
-        }
+    public static boolean canPieceAttackSquare(Square from, Square target, PieceType pieceType, Color color, Board board) {
+        int fromSquare = Bitboards.square(from.rank(), from.file());
+        long targetMask = Bitboards.bit(Bitboards.square(target.rank(), target.file()));
+        return (attacks(fromSquare, pieceType, color, board.occupied()) & targetMask) != 0;
+    }
 
-        return true;
+    /**
+     * Битборд клеток, атакуемых фигурой заданного типа с клетки square
+     */
+    public static long attacks(int square, PieceType pieceType, Color color, long occupied) {
+        return switch (pieceType) {
+            case PAWN -> Bitboards.pawnAttacks(color, square);
+            case ROOK -> Bitboards.rookAttacks(square, occupied);
+            case BISHOP -> Bitboards.bishopAttacks(square, occupied);
+            case KNIGHT -> Bitboards.knightAttacks(square);
+            case QUEEN -> Bitboards.queenAttacks(square, occupied);
+            case KING -> Bitboards.kingAttacks(square);
+        };
     }
 }
@@ -0,0 +1,123 @@
+package chess.mini.engine.core;
+
+import chess.mini.engine.data.Color;
+
+/**
+ * Битовые маски доски и предвычисленные таблицы атак.
+ * Клетка кодируется индексом rank * 8 + file (a1 = 0, h8 = 63).
+ */
+public class Bitboards {
+    public static final long FILE_A = 0x0101010101010101L;
+    public static final long FILE_H = FILE_A << 7;
+    public static final long RANK_1 = 0xFFL;
+    public static final long RANK_8 = RANK_1 << 56;
+
+    private static final long[] KNIGHT_ATTACKS = new long[64];
+    private static final long[] KING_ATTACKS = new long[64];
+    private static final long[][] PAWN_ATTACKS = new long[2][64];
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    static {
+        int[][] knightOffsets = {{-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1}, {2, 1}};
+        int[][] kingOffsets = {{-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}};
+
+        for (int square = 0; square < 64; square++) {
+            KNIGHT_ATTACKS[square] = offsetsMask(square, knightOffsets);
+            KING_ATTACKS[square] = offsetsMask(square, kingOffsets);
+            PAWN_ATTACKS[Color.WHITE.ordinal()][square] = offsetsMask(square, new int[][]{{1, -1}, {1, 1}});
+            PAWN_ATTACKS[Color.BLACK.ordinal()][square] = offsetsMask(square, new int[][]{{-1, -1}, {-1, 1}});
+        }
+
+        for (int a = 0; a < 64; a++) {
+            for (int b = 0; b < 64; b++) {
+                if (a == b) {
+                    continue;
+                }
+                long ends = bit(a) | bit(b);
+                if ((SlidingAttacks.rookAttacks(a, 0L) & bit(b)) != 0) {
+                    BETWEEN[a][b] = SlidingAttacks.rookAttacks(a, bit(b)) & SlidingAttacks.rookAttacks(b, bit(a));
+                    LINE[a][b] = (SlidingAttacks.rookAttacks(a, 0L) & SlidingAttacks.rookAttacks(b, 0L)) | ends;
+                } else if ((SlidingAttacks.bishopAttacks(a, 0L) & bit(b)) != 0) {
+                    BETWEEN[a][b] = SlidingAttacks.bishopAttacks(a, bit(b)) & SlidingAttacks.bishopAttacks(b, bit(a));
+                    LINE[a][b] = (SlidingAttacks.bishopAttacks(a, 0L) & SlidingAttacks.bishopAttacks(b, 0L)) | ends;
+                }
+            }
+        }
+    }
+
+    private static long offsetsMask(int square, int[][] offsets) {
+        long mask = 0L;
+        for (int[] offset : offsets) {
+            int newRank = rank(square) + offset[0];
+            int newFile = file(square) + offset[1];
+            if (newRank >= 0 && newRank < 8 && newFile >= 0 && newFile < 8) {
+                mask |= bit(square(newRank, newFile));
+            }
+        }
+        return mask;
+    }
+
+    public static int square(int rank, int file) {
+        return rank * 8 + file;
+    }
+
+    public static int rank(int square) {
+        return square >>> 3;
+    }
+
+    public static int file(int square) {
+        return square & 7;
+    }
+
+    public static long bit(int square) {
+        return 1L << square;
+    }
+
+    public static long knightAttacks(int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+
+    public static long kingAttacks(int square) {
+        return KING_ATTACKS[square];
+    }
+
+    /**
+     * Клетки, которые бьет пешка заданного цвета с указанной клетки
+     */
+    public static long pawnAttacks(Color color, int square) {
+        return PAWN_ATTACKS[color.ordinal()][square];
+    }
+
+    /**
+     * Клетки строго между a и b, если они на одной линии или диагонали, иначе 0
+     */
+    public static long between(int a, int b) {
+        return BETWEEN[a][b];
+    }
+
+    /**
+     * Вся линия (от края до края) через клетки a и b, если они на одной линии или диагонали, иначе 0
+     */
+    public static long line(int a, int b) {
+        return LINE[a][b];
+    }
+
+    /**
+     * Атаки ладьи с учетом блокирующих фигур (поиск в magic-таблице)
+     */
+    public static long rookAttacks(int square, long occupied) {
+        return SlidingAttacks.rookAttacks(square, occupied);
+    }
+
+    /**
+     * Атаки слона с учетом блокирующих фигур (поиск в magic-таблице)
+     */
+    public static long bishopAttacks(int square, long occupied) {
+        return SlidingAttacks.bishopAttacks(square, occupied);
+    }
+
+    public static long queenAttacks(int square, long occupied) {
+        return SlidingAttacks.rookAttacks(square, occupied) | SlidingAttacks.bishopAttacks(square, occupied);
+    }
+}
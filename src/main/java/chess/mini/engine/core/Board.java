@@ -3,9 +3,82 @@ package chess.mini.engine.core;
 import chess.mini.engine.data.Color;
 import chess.mini.engine.data.Piece;
 import chess.mini.engine.data.PieceType;
+import chess.mini.engine.data.Position;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Шахматная доска: массив клеток для доступа по координатам,
+ * битборды по каждой фигуре для быстрых сканов, списки фигур,
+ * материал, права на рокировку, клетка взятия на проходе и хеш Zobrist позиции.
+ * Все производные данные обновляются инкрементально в setPiece.
+ * Изменять доску может только один поток; неизменяемую доску можно читать из нескольких потоков,
+ * в том числе через кэшируемые attacksBy и checkers
+ */
 public class Board {
-    private Piece[][] cells = new Piece[8][8];
+    // Биты прав на рокировку
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 1 << 1;
+    public static final int BLACK_KINGSIDE = 1 << 2;
+    public static final int BLACK_QUEENSIDE = 1 << 3;
+    public static final int ALL_CASTLING = 0xF;
+
+    private final Piece[][] cells = new Piece[8][8];
+
+    // Битборд на каждую фигуру: индекс Piece.index() (цвет * 6 + тип)
+    private final long[] pieceBitboards = new long[12];
+    private final long[] colorBitboards = new long[2];
+    private long occupied;
+
+    // Списки клеток с фигурами каждого цвета; listIndex - позиция клетки в своем списке
+    private final int[][] pieceLists = new int[2][64];
+    private final int[] listIndex = new int[64];
+    private final int[] pieceCounts = new int[2];
+    private final int[] typeCounts = new int[12];
+    private final int[] kingSquares = {-1, -1};
+    private final int[] material = new int[2];
+    // Суммы PieceSquareTables по цветам для миттельшпиля и эндшпиля и фаза игры
+    private final int[] mgScores = new int[2];
+    private final int[] egScores = new int[2];
+    private int phase;
+
+    private Color sideToMove = Color.WHITE;
+    private int castlingRights;
+    // Клетка, через которую прошла пешка двойным ходом, или -1
+    private int enPassantSquare = -1;
+    // Полуходы с последнего взятия или хода пешки и номер хода (в хеш не входят)
+    private int halfmoveClock;
+    private int fullmoveNumber = 1;
+    // Хеш Zobrist: фигуры, сторона, права на рокировку и взятие на проходе,
+    // обновляется инкрементально при каждом изменении
+    private long hash;
+    // Хеш Zobrist только пешек обоих цветов - ключ кэша пешечной структуры
+    private long pawnHash;
+
+    // Кэш производных данных позиции: карты атак, шахующие фигуры и наличие легальных ходов.
+    // Бит флага установлен, пока значение актуально; любое изменение фигур сбрасывает все флаги.
+    // Флаги публикуются с release после записи значения и читаются с acquire, поэтому читатель,
+    // увидевший флаг, видит и значение. Потерянная при гонке установка флага лишь приводит к повторному расчету
+    private static final int ATTACKS_VALID = 1;
+    private static final int CHECKERS_VALID = 1 << 2;
+    private static final int LEGAL_MOVES_VALID = 1 << 4;
+    private static final int HAS_LEGAL_MOVES = 1 << 6;
+
+    private static final Color[] COLORS = Color.values();
+    private static final VarHandle CACHE_FLAGS;
+
+    static {
+        try {
+            CACHE_FLAGS = MethodHandles.lookup().findVarHandle(Board.class, "cacheFlags", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private int cacheFlags;
+    private final long[] attackMaps = new long[2];
+    private final long[] checkers = new long[2];
 
     public Board() {
     }
@@ -14,47 +87,431 @@ public class Board {
         Board board = new Board();
 
         // Расставляем белые фигуры
-        board.cells[0][0] = new Piece(PieceType.ROOK, Color.WHITE);
-        board.cells[0][1] = new Piece(PieceType.KNIGHT, Color.WHITE);
-        board.cells[0][2] = new Piece(PieceType.BISHOP, Color.WHITE);
-        board.cells[0][3] = new Piece(PieceType.QUEEN, Color.WHITE);
-        board.cells[0][4] = new Piece(PieceType.KING, Color.WHITE);
-        board.cells[0][5] = new Piece(PieceType.BISHOP, Color.WHITE);
-        board.cells[0][6] = new Piece(PieceType.KNIGHT, Color.WHITE);
-        board.cells[0][7] = new Piece(PieceType.ROOK, Color.WHITE);
+        board.setPiece(0, 0, Piece.of(PieceType.ROOK, Color.WHITE));
+        board.setPiece(0, 1, Piece.of(PieceType.KNIGHT, Color.WHITE));
+        board.setPiece(0, 2, Piece.of(PieceType.BISHOP, Color.WHITE));
+        board.setPiece(0, 3, Piece.of(PieceType.QUEEN, Color.WHITE));
+        board.setPiece(0, 4, Piece.of(PieceType.KING, Color.WHITE));
+        board.setPiece(0, 5, Piece.of(PieceType.BISHOP, Color.WHITE));
+        board.setPiece(0, 6, Piece.of(PieceType.KNIGHT, Color.WHITE));
+        board.setPiece(0, 7, Piece.of(PieceType.ROOK, Color.WHITE));
 
         // Белые пешки
         for (int file = 0; file < 8; file++) {
-            board.cells[1][file] = new Piece(PieceType.PAWN, Color.WHITE);
+            board.setPiece(1, file, Piece.of(PieceType.PAWN, Color.WHITE));
         }
 
         // Расставляем черные фигуры
-        board.cells[7][0] = new Piece(PieceType.ROOK, Color.BLACK);
-        board.cells[7][1] = new Piece(PieceType.KNIGHT, Color.BLACK);
-        board.cells[7][2] = new Piece(PieceType.BISHOP, Color.BLACK);
-        board.cells[7][3] = new Piece(PieceType.QUEEN, Color.BLACK);
-        board.cells[7][4] = new Piece(PieceType.KING, Color.BLACK);
-        board.cells[7][5] = new Piece(PieceType.BISHOP, Color.BLACK);
-        board.cells[7][6] = new Piece(PieceType.KNIGHT, Color.BLACK);
-        board.cells[7][7] = new Piece(PieceType.ROOK, Color.BLACK);
+        board.setPiece(7, 0, Piece.of(PieceType.ROOK, Color.BLACK));
+        board.setPiece(7, 1, Piece.of(PieceType.KNIGHT, Color.BLACK));
+        board.setPiece(7, 2, Piece.of(PieceType.BISHOP, Color.BLACK));
+        board.setPiece(7, 3, Piece.of(PieceType.QUEEN, Color.BLACK));
+        board.setPiece(7, 4, Piece.of(PieceType.KING, Color.BLACK));
+        board.setPiece(7, 5, Piece.of(PieceType.BISHOP, Color.BLACK));
+        board.setPiece(7, 6, Piece.of(PieceType.KNIGHT, Color.BLACK));
+        board.setPiece(7, 7, Piece.of(PieceType.ROOK, Color.BLACK));
 
         // Черные пешки
         for (int file = 0; file < 8; file++) {
-            board.cells[6][file] = new Piece(PieceType.PAWN, Color.BLACK);
+            board.setPiece(6, file, Piece.of(PieceType.PAWN, Color.BLACK));
         }
 
+        board.setCastlingRights(ALL_CASTLING);
         return board;
     }
 
+    /**
+     * Снимает все фигуры и возвращает состояние к пустой доске с ходом белых
+     */
+    public void clear() {
+        for (long pieces = occupied; pieces != 0; pieces &= pieces - 1) {
+            setPiece(Long.numberOfTrailingZeros(pieces), null);
+        }
+        setSideToMove(Color.WHITE);
+        setCastlingRights(0);
+        setEnPassantSquare(-1);
+        halfmoveClock = 0;
+        fullmoveNumber = 1;
+    }
+
+    /**
+     * Делает доску копией другой без выделения памяти: позволяет переиспользовать
+     * один экземпляр для множества позиций. Доска other только читается
+     */
+    public void copyFrom(Board other) {
+        clear();
+        for (long pieces = other.occupied; pieces != 0; pieces &= pieces - 1) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            setPiece(square, other.getPiece(square));
+        }
+        setSideToMove(other.sideToMove);
+        setCastlingRights(other.castlingRights);
+        setEnPassantSquare(other.enPassantSquare);
+        halfmoveClock = other.halfmoveClock;
+        fullmoveNumber = other.fullmoveNumber;
+    }
+
+    /**
+     * Доска по неизменяемому снимку позиции
+     */
+    public static Board of(Position position) {
+        Board board = new Board();
+        board.copyFrom(position);
+        return board;
+    }
+
+    /**
+     * Неизменяемый снимок текущей позиции: несколько long, без копирования клеток
+     */
+    public Position toPosition() {
+        return Position.of(pieceBitboards, sideToMove, castlingRights, enPassantSquare,
+                halfmoveClock, fullmoveNumber, hash);
+    }
+
+    /**
+     * Расставляет позицию снимка, стирая прежнее содержимое доски
+     */
+    public void copyFrom(Position position) {
+        clear();
+        for (long pieces = position.occupied(); pieces != 0; pieces &= pieces - 1) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            setPiece(square, position.pieceAt(square));
+        }
+        setSideToMove(position.sideToMove());
+        setCastlingRights(position.castlingRights());
+        setEnPassantSquare(position.enPassantSquare());
+        halfmoveClock = position.halfmoveClock();
+        fullmoveNumber = position.fullmoveNumber();
+    }
+
     public Piece getPiece(int rank, int file) {
         return cells[rank][file];
     }
 
     public void setPiece(int rank, int file, Piece piece) {
+        setPiece(Bitboards.square(rank, file), piece);
+    }
+
+    /**
+     * Устанавливает фигуру по индексу клетки (rank * 8 + file)
+     */
+    public void setPiece(int square, Piece piece) {
+        int rank = Bitboards.rank(square);
+        int file = Bitboards.file(square);
+        long mask = Bitboards.bit(square);
+        cacheFlags = 0;
+
+        Piece previous = cells[rank][file];
+        if (previous != null) {
+            int color = previous.color().ordinal();
+            pieceBitboards[previous.index()] &= ~mask;
+            colorBitboards[color] &= ~mask;
+            occupied &= ~mask;
+            hash ^= Zobrist.piece(previous.index(), square);
+            if (previous.type() == PieceType.PAWN) {
+                pawnHash ^= Zobrist.piece(previous.index(), square);
+            }
+
+            // Удаляем клетку из списка, переставляя на ее место последнюю
+            int last = pieceLists[color][--pieceCounts[color]];
+            pieceLists[color][listIndex[square]] = last;
+            listIndex[last] = listIndex[square];
+            typeCounts[previous.index()]--;
+            material[color] -= previous.type().value();
+            mgScores[color] -= PieceSquareTables.mg(previous.index(), square);
+            egScores[color] -= PieceSquareTables.eg(previous.index(), square);
+            phase -= PieceSquareTables.phase(previous.type());
+        }
+
         cells[rank][file] = piece;
+        if (piece != null) {
+            int color = piece.color().ordinal();
+            pieceBitboards[piece.index()] |= mask;
+            colorBitboards[color] |= mask;
+            occupied |= mask;
+            hash ^= Zobrist.piece(piece.index(), square);
+            if (piece.type() == PieceType.PAWN) {
+                pawnHash ^= Zobrist.piece(piece.index(), square);
+            }
+
+            listIndex[square] = pieceCounts[color];
+            pieceLists[color][pieceCounts[color]++] = square;
+            typeCounts[piece.index()]++;
+            material[color] += piece.type().value();
+            mgScores[color] += PieceSquareTables.mg(piece.index(), square);
+            egScores[color] += PieceSquareTables.eg(piece.index(), square);
+            phase += PieceSquareTables.phase(piece.type());
+        }
+
+        if ((previous != null && previous.type() == PieceType.KING) || (piece != null && piece.type() == PieceType.KING)) {
+            updateKingSquares();
+        }
+    }
+
+    private void updateKingSquares() {
+        for (Color color : COLORS) {
+            long kings = pieceBitboards[color.ordinal() * 6 + PieceType.KING.ordinal()];
+            kingSquares[color.ordinal()] = kings == 0 ? -1 : Long.numberOfTrailingZeros(kings);
+        }
+    }
+
+    /**
+     * Получает фигуру по индексу клетки (rank * 8 + file)
+     */
+    public Piece getPiece(int square) {
+        return cells[Bitboards.rank(square)][Bitboards.file(square)];
     }
 
+    /**
+     * Возвращает сам массив клеток доски, как и раньше. Запись в него не обновляет битборды
+     * и хеш, поэтому изменять доску нужно через setPiece.
+     *
+     * @deprecated используйте copyCells (копия) или getPiece
+     */
+    @Deprecated
     public Piece[][] getCells() {
         return cells;
     }
+
+    /**
+     * Возвращает копию клеток доски [rank][file]; изменение копии доску не затрагивает
+     */
+    public Piece[][] copyCells() {
+        Piece[][] copy = new Piece[8][];
+        for (int rank = 0; rank < 8; rank++) {
+            copy[rank] = cells[rank].clone();
+        }
+        return copy;
+    }
+
+    /**
+     * Битборд фигур заданного типа и цвета
+     */
+    public long pieces(PieceType type, Color color) {
+        return pieceBitboards[color.ordinal() * 6 + type.ordinal()];
+    }
+
+    /**
+     * Битборд всех фигур заданного цвета
+     */
+    public long pieces(Color color) {
+        return colorBitboards[color.ordinal()];
+    }
+
+    /**
+     * Битборд всех занятых клеток
+     */
+    public long occupied() {
+        return occupied;
+    }
+
+    /**
+     * Клетка короля заданного цвета или -1, если короля нет
+     */
+    public int kingSquare(Color color) {
+        return kingSquares[color.ordinal()];
+    }
+
+    /**
+     * Число фигур заданного цвета
+     */
+    public int pieceCount(Color color) {
+        return pieceCounts[color.ordinal()];
+    }
+
+    /**
+     * Число фигур заданного типа и цвета
+     */
+    public int pieceCount(PieceType type, Color color) {
+        return typeCounts[color.ordinal() * 6 + type.ordinal()];
+    }
+
+    /**
+     * Клетка index-й фигуры в списке фигур цвета (0 &lt;= index &lt; pieceCount(color))
+     */
+    public int pieceSquare(Color color, int index) {
+        return pieceLists[color.ordinal()][index];
+    }
+
+    /**
+     * Суммарная стоимость фигур заданного цвета в сантипешках
+     */
+    public int material(Color color) {
+        return material[color.ordinal()];
+    }
+
+    /**
+     * Сумма значений PieceSquareTables фигур цвета для миттельшпиля (с учетом стоимости фигур)
+     */
+    public int mgScore(Color color) {
+        return mgScores[color.ordinal()];
+    }
+
+    /**
+     * Сумма значений PieceSquareTables фигур цвета для эндшпиля (с учетом стоимости фигур)
+     */
+    public int egScore(Color color) {
+        return egScores[color.ordinal()];
+    }
+
+    /**
+     * Фаза игры: PieceSquareTables.MAX_PHASE в начальной позиции, 0 без легких и тяжелых фигур.
+     * При превращениях может превышать MAX_PHASE
+     */
+    public int phase() {
+        return phase;
+    }
+
+    /**
+     * Сторона, которая должна ходить
+     */
+    public Color getSideToMove() {
+        return sideToMove;
+    }
+
+    public void setSideToMove(Color sideToMove) {
+        if (this.sideToMove != sideToMove) {
+            this.sideToMove = sideToMove;
+            hash ^= Zobrist.side();
+        }
+    }
+
+    /**
+     * Права на рокировку: комбинация битов WHITE_KINGSIDE, WHITE_QUEENSIDE, BLACK_KINGSIDE, BLACK_QUEENSIDE
+     */
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    public void setCastlingRights(int castlingRights) {
+        if (this.castlingRights != castlingRights) {
+            if (this.castlingRights != 0) {
+                hash ^= Zobrist.castling(this.castlingRights);
+            }
+            if (castlingRights != 0) {
+                hash ^= Zobrist.castling(castlingRights);
+            }
+            this.castlingRights = castlingRights;
+            cacheFlags = 0;
+        }
+    }
+
+    /**
+     * Клетка, на которую возможно взятие на проходе, или -1
+     */
+    public int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    public void setEnPassantSquare(int enPassantSquare) {
+        if (this.enPassantSquare != enPassantSquare) {
+            if (this.enPassantSquare >= 0) {
+                hash ^= Zobrist.enPassant(Bitboards.file(this.enPassantSquare));
+            }
+            if (enPassantSquare >= 0) {
+                hash ^= Zobrist.enPassant(Bitboards.file(enPassantSquare));
+            }
+            this.enPassantSquare = enPassantSquare;
+            cacheFlags = 0;
+        }
+    }
+
+    /**
+     * Число полуходов с последнего взятия или хода пешки (правило 50 ходов)
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    public void setHalfmoveClock(int halfmoveClock) {
+        this.halfmoveClock = halfmoveClock;
+    }
+
+    /**
+     * Номер хода, начиная с 1; увеличивается после хода черных
+     */
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    public void setFullmoveNumber(int fullmoveNumber) {
+        this.fullmoveNumber = fullmoveNumber;
+    }
+
+    /**
+     * 64-битный хеш Zobrist позиции (фигуры, сторона, которая должна ходить,
+     * права на рокировку и взятие на проходе)
+     */
+    public long hash() {
+        return hash;
+    }
+
+    /**
+     * Хеш Zobrist расположения пешек; не зависит от остальных фигур и очереди хода
+     */
+    public long pawnHash() {
+        return pawnHash;
+    }
+
+    /**
+     * Битборд всех клеток, атакуемых фигурами заданного цвета.
+     * Вычисляется один раз на позицию и кэшируется до следующего изменения доски
+     */
+    public long attacksBy(Color color) {
+        int flag = ATTACKS_VALID << color.ordinal();
+        if ((cacheFlags() & flag) == 0) {
+            long attacks = AttackChecker.attackMap(color, this);
+            attackMaps[color.ordinal()] = attacks;
+            publish(flag);
+            return attacks;
+        }
+        return attackMaps[color.ordinal()];
+    }
+
+    /**
+     * Битборд фигур противника, объявляющих шах королю заданного цвета (кэшируется)
+     */
+    public long checkers(Color color) {
+        int flag = CHECKERS_VALID << color.ordinal();
+        if ((cacheFlags() & flag) == 0) {
+            int king = kingSquares[color.ordinal()];
+            long result = king < 0 ? 0L : AttackChecker.attackersTo(king, color.opposite(), this, occupied);
+            checkers[color.ordinal()] = result;
+            publish(flag);
+            return result;
+        }
+        return checkers[color.ordinal()];
+    }
+
+    /**
+     * Есть ли у стороны легальные ходы (кэшируется: мат и пат проверяются подряд)
+     */
+    boolean hasLegalMoves(Color color) {
+        int validFlag = LEGAL_MOVES_VALID << color.ordinal();
+        int valueFlag = HAS_LEGAL_MOVES << color.ordinal();
+        int flags = cacheFlags();
+        if ((flags & validFlag) == 0) {
+            boolean hasMoves = MoveValidator.hasLegalMoves(color, this);
+            publish(validFlag | (hasMoves ? valueFlag : 0));
+            return hasMoves;
+        }
+        return (flags & valueFlag) != 0;
+    }
+
+    /**
+     * Сбрасывает кэш карт атак, шахующих фигур и наличия ходов, не меняя позицию.
+     * Движку не нужен (кэш сбрасывается при каждом изменении доски); предназначен для
+     * бенчмарков и тестов, которым нужно измерить или проверить расчет без кэша
+     */
+    public void invalidateCaches() {
+        CACHE_FLAGS.setRelease(this, 0);
+    }
+
+    private int cacheFlags() {
+        return (int) CACHE_FLAGS.getAcquire(this);
+    }
+
+    private void publish(int flags) {
+        CACHE_FLAGS.setRelease(this, cacheFlags() | flags);
+    }
 }
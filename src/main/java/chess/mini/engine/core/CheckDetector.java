@@ -1,8 +1,6 @@
 package chess.mini.engine.core;
 
 import chess.mini.engine.data.Color;
-import chess.mini.engine.data.Piece;
-import chess.mini.engine.data.PieceType;
 import chess.mini.engine.data.Square;
 
 /**
@@ -14,30 +12,16 @@ public class CheckDetector {
      * Проверяет, находится ли король заданного цвета под шахом
      */
     public static boolean inCheck(Color color, Board board) {
-        // Находим короля заданного цвета
-        Square kingSquare = findKing(color, board);
-        if (kingSquare == null) {
-            return false; // Король не найден
-        }
-
-        // Проверяем, атакуется ли клетка короля фигурами противника
-        Color opponentColor = (color == Color.WHITE) ? Color.BLACK : Color.WHITE;
-        return AttackChecker.isSquareAttacked(kingSquare, opponentColor, board);
+        // Шахующие фигуры кэшируются на доске до следующего изменения позиции
+        return board.checkers(color) != 0;
     }
 
     /**
      * Находит короля заданного цвета на доске
      */
     public static Square findKing(Color color, Board board) {
-        for (int rank = 0; rank < 8; rank++) {
-            for (int file = 0; file < 8; file++) {
-                Piece piece = board.getPiece(rank, file);
-                if (piece != null && piece.type() == PieceType.KING && piece.color() == color) {
-                    return new Square(file, rank);
-                }
-            }
-        }
-        return null;
+        int king = board.kingSquare(color);
+        return king < 0 ? null : Square.of(king);
     }
 
     /**
@@ -56,18 +40,7 @@ public class CheckDetector {
      * Проверяет, есть ли у стороны легальные ходы
      */
     private static boolean hasLegalMoves(Color color, Board board) {
-        for (int rank = 0; rank < 8; rank++) {
-            for (int file = 0; file < 8; file++) {
-                Piece piece = board.getPiece(rank, file);
-                if (piece != null && piece.color() == color) {
-                    Square from = new Square(file, rank);
-                    if (!MoveValidator.getLegalMoves(from, piece, color, board).isEmpty()) {
-                        return true;
-                    }
-                }
-            }
-        }
-        return false;
+        return board.hasLegalMoves(color);
     }
 
     /**
@@ -0,0 +1,96 @@
+package chess.mini.engine.core;
+
+import chess.mini.engine.data.PieceType;
+
+/**
+ * Упакованное представление хода в int:
+ * биты 0-5 - клетка откуда, 6-11 - клетка куда, 12-15 - флаги.
+ * Бит 2 флагов - взятие, бит 3 - превращение, младшие два бита превращения - фигура
+ */
+public class Move {
+    public static final int NONE = 0;
+
+    public static final int QUIET = 0;
+    public static final int DOUBLE_PAWN_PUSH = 1;
+    public static final int KING_CASTLE = 2;
+    public static final int QUEEN_CASTLE = 3;
+    public static final int CAPTURE = 4;
+    public static final int EN_PASSANT = 5;
+    public static final int KNIGHT_PROMOTION = 8;
+    public static final int BISHOP_PROMOTION = 9;
+    public static final int ROOK_PROMOTION = 10;
+    public static final int QUEEN_PROMOTION = 11;
+
+    private static final int PROMOTION = 8;
+
+    // Фигура превращения по двум младшим битам флага
+    private static final PieceType[] PROMOTION_TYPES = {PieceType.KNIGHT, PieceType.BISHOP, PieceType.ROOK, PieceType.QUEEN};
+
+    public static int encode(int from, int to, int flags) {
+        return from | (to << 6) | (flags << 12);
+    }
+
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    public static int flags(int move) {
+        return (move >>> 12) & 0xF;
+    }
+
+    public static boolean isCapture(int move) {
+        return (flags(move) & CAPTURE) != 0;
+    }
+
+    public static boolean isEnPassant(int move) {
+        return flags(move) == EN_PASSANT;
+    }
+
+    public static boolean isCastling(int move) {
+        int flags = flags(move);
+        return flags == KING_CASTLE || flags == QUEEN_CASTLE;
+    }
+
+    public static boolean isPromotion(int move) {
+        return (flags(move) & PROMOTION) != 0;
+    }
+
+    /**
+     * Фигура, в которую превращается пешка, или null для обычного хода
+     */
+    public static PieceType promotionType(int move) {
+        return isPromotion(move) ? PROMOTION_TYPES[flags(move) & 3] : null;
+    }
+
+    /**
+     * Флаг превращения в заданную фигуру (без бита взятия)
+     */
+    public static int promotionFlag(PieceType type) {
+        return switch (type) {
+            case KNIGHT -> KNIGHT_PROMOTION;
+            case BISHOP -> BISHOP_PROMOTION;
+            case ROOK -> ROOK_PROMOTION;
+            case QUEEN -> QUEEN_PROMOTION;
+            default -> throw new IllegalArgumentException("Недопустимая фигура превращения: " + type);
+        };
+    }
+
+    /**
+     * Запись хода в координатной нотации, например e2e4 или e7e8q
+     */
+    public static String toString(int move) {
+        String result = squareName(from(move)) + squareName(to(move));
+        if (isPromotion(move)) {
+            result += "nbrq".charAt(flags(move) & 3);
+        }
+        return result;
+    }
+
+    public static String squareName(int square) {
+        return "" + (char) ('a' + Bitboards.file(square)) + (char) ('1' + Bitboards.rank(square));
+    }
+}
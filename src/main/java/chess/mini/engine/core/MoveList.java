@@ -0,0 +1,68 @@
+package chess.mini.engine.core;
+
+/**
+ * Переиспользуемый буфер упакованных ходов.
+ * Очищается вызовом clear() и не аллоцирует память при повторном заполнении
+ */
+public class MoveList {
+    // В любой легальной позиции не больше 218 ходов
+    public static final int MAX_MOVES = 256;
+
+    private final int[] moves;
+    private int size;
+
+    public MoveList() {
+        this(MAX_MOVES);
+    }
+
+    public MoveList(int capacity) {
+        moves = new int[capacity];
+    }
+
+    public void add(int move) {
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Оставляет в буфере только первые size ходов
+     */
+    public void truncate(int size) {
+        this.size = size;
+    }
+
+    public boolean contains(int move) {
+        for (int i = 0; i < size; i++) {
+            if (moves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Прямой доступ к массиву ходов; заполнены только первые size() элементов
+     */
+    public int[] array() {
+        return moves;
+    }
+}
@@ -2,59 +2,268 @@ package chess.mini.engine.core;
 
 import chess.mini.engine.data.Color;
 import chess.mini.engine.data.Piece;
+import chess.mini.engine.data.PieceType;
 import chess.mini.engine.data.Square;
+import chess.mini.engine.metrics.Counter;
+import chess.mini.engine.metrics.Metrics;
 
 import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Класс для валидации ходов
+ * Класс для валидации ходов.
+ * Шахующие и связанные фигуры вычисляются один раз на позицию,
+ * после чего генерируются только легальные ходы: уходы от шаха
+ * или ходы связанных фигур вдоль линии связки
  */
 public class MoveValidator {
-    
+
     /**
-     * Получает список легальных ходов для фигуры
+     * Получает список легальных ходов для фигуры.
+     * Список пуст, если piece не стоит на клетке from или не принадлежит стороне, которая ходит
      */
     public static List<Square> getLegalMoves(Square from, Piece piece, Color sideToMove, Board board) {
         List<Square> legalMoves = new ArrayList<>();
-        
-        if (piece == null || piece.color() != sideToMove) {
+
+        if (piece == null || piece.color() != sideToMove || !piece.equals(board.getPiece(from.index()))) {
             return legalMoves;
         }
 
-        // Получаем все возможные ходы для фигуры
-        List<Square> allMoves = PieceMoves.generateMoves(from, piece, board);
+        for (long targets = legalTargets(from.index(), sideToMove, board); targets != 0; targets &= targets - 1) {
+            legalMoves.add(Square.of(Long.numberOfTrailingZeros(targets)));
+        }
+        return legalMoves;
+    }
 
-        // Фильтруем ходы, оставляющие короля под боем
-        for (Square move : allMoves) {
-            if (!wouldMoveLeaveKingInCheck(from, move, sideToMove, board)) {
-                legalMoves.add(move);
+    /**
+     * Записывает в буфер легальные ходы фигуры с клетки from
+     */
+    public static void getLegalMoves(int from, Color sideToMove, Board board, MoveList moves) {
+        Piece piece = board.getPiece(from);
+        if (piece == null || piece.color() != sideToMove) {
+            return;
+        }
+        generateLegalMoves(sideToMove, board, Bitboards.bit(from), -1L, moves);
+    }
+
+    /**
+     * Записывает в буфер все легальные ходы стороны
+     */
+    public static void getLegalMoves(Color sideToMove, Board board, MoveList moves) {
+        generateLegalMoves(sideToMove, board, board.pieces(sideToMove), -1L, moves);
+    }
+
+    /**
+     * Записывает в буфер только легальные взятия стороны, включая взятие на проходе
+     * и взятия с превращением
+     */
+    public static void getLegalCaptures(Color sideToMove, Board board, MoveList moves) {
+        generateLegalMoves(sideToMove, board, board.pieces(sideToMove), board.pieces(sideToMove.opposite()), moves);
+    }
+
+    /**
+     * Проверяет, есть ли у стороны хотя бы один легальный ход
+     */
+    public static boolean hasLegalMoves(Color sideToMove, Board board) {
+        int king = board.kingSquare(sideToMove);
+        if (king < 0) {
+            // Без короля любой возможный ход легален
+            for (int i = 0; i < board.pieceCount(sideToMove); i++) {
+                int from = board.pieceSquare(sideToMove, i);
+                if (PieceMoves.targets(from, board.getPiece(from).type(), sideToMove, board) != 0) {
+                    return true;
+                }
             }
+            return false;
         }
 
-        return legalMoves;
+        // Сначала король: в большинстве позиций у него есть ход, а при двойном шахе он единственный
+        if (kingTargets(king, sideToMove, board, -1L) != 0) {
+            return true;
+        }
+
+        long checkers = board.checkers(sideToMove);
+        long checkMask = checkMask(king, checkers);
+        long pinned = pinnedPieces(king, sideToMove, board);
+        for (int i = 0; i < board.pieceCount(sideToMove); i++) {
+            int from = board.pieceSquare(sideToMove, i);
+            if (from != king && pieceTargets(from, king, checkMask, pinned, sideToMove, board) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Легальные ходы фигур из fromMask на клетки из targetMask;
+     * пешкам дополнительно разрешена клетка взятия на проходе
+     */
+    private static void generateLegalMoves(Color sideToMove, Board board, long fromMask, long targetMask, MoveList moves) {
+        Metrics.increment(Counter.MOVE_GENERATIONS);
+        int king = board.kingSquare(sideToMove);
+        if (king < 0) {
+            // Без короля проверять нечего - все возможные ходы легальны
+            for (long pieces = fromMask; pieces != 0; pieces &= pieces - 1) {
+                int from = Long.numberOfTrailingZeros(pieces);
+                PieceType type = board.getPiece(from).type();
+                PieceMoves.addMoves(from, PieceMoves.targets(from, type, sideToMove, board) & pieceMask(type, targetMask, board),
+                        type, board, moves);
+            }
+            return;
+        }
+
+        long checkers = board.checkers(sideToMove);
+        long checkMask = checkMask(king, checkers);
+        long pinned = pinnedPieces(king, sideToMove, board);
+
+        for (long pieces = fromMask; pieces != 0; pieces &= pieces - 1) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            Piece piece = board.getPiece(from);
+            long targets = (from == king)
+                    ? kingTargets(king, sideToMove, board, targetMask)
+                    : pieceTargets(from, king, checkMask, pinned, sideToMove, board) & pieceMask(piece.type(), targetMask, board);
+            PieceMoves.addMoves(from, targets, piece.type(), board, moves);
+        }
+    }
+
+    private static long pieceMask(PieceType type, long targetMask, Board board) {
+        return type == PieceType.PAWN ? targetMask | PieceMoves.enPassantMask(board) : targetMask;
+    }
+
+    /**
+     * Битборд легальных клеток назначения для фигуры с клетки from
+     */
+    private static long legalTargets(int from, Color sideToMove, Board board) {
+        int king = board.kingSquare(sideToMove);
+        if (king < 0) {
+            return PieceMoves.targets(from, board.getPiece(from).type(), sideToMove, board);
+        }
+
+        if (from == king) {
+            return kingTargets(king, sideToMove, board, -1L);
+        }
+        long checkers = board.checkers(sideToMove);
+        return pieceTargets(from, king, checkMask(king, checkers), pinnedPieces(king, sideToMove, board), sideToMove, board);
+    }
+
+    /**
+     * Клетки, куда можно пойти не королем: при шахе - взятие шахующей фигуры или перекрытие,
+     * при двойном шахе - никуда
+     */
+    private static long checkMask(int king, long checkers) {
+        if (checkers == 0) {
+            return -1L;
+        }
+        if ((checkers & (checkers - 1)) != 0) {
+            return 0L; // Двойной шах
+        }
+        return checkers | Bitboards.between(king, Long.numberOfTrailingZeros(checkers));
+    }
+
+    /**
+     * Битборд своих фигур, связанных с королем дальнобойными фигурами противника
+     */
+    private static long pinnedPieces(int king, Color sideToMove, Board board) {
+        Color opponent = sideToMove.opposite();
+        long opponentPieces = board.pieces(opponent);
+        long queens = board.pieces(PieceType.QUEEN, opponent);
+
+        // Дальнобойные фигуры противника, которые били бы короля сквозь любые наши фигуры
+        long snipers = (Bitboards.rookAttacks(king, opponentPieces) & (board.pieces(PieceType.ROOK, opponent) | queens))
+                | (Bitboards.bishopAttacks(king, opponentPieces) & (board.pieces(PieceType.BISHOP, opponent) | queens));
+
+        long pinned = 0L;
+        for (; snipers != 0; snipers &= snipers - 1) {
+            long blockers = Bitboards.between(king, Long.numberOfTrailingZeros(snipers)) & board.occupied();
+            if (blockers != 0 && (blockers & (blockers - 1)) == 0 && (blockers & board.pieces(sideToMove)) != 0) {
+                pinned |= blockers;
+            }
+        }
+        return pinned;
+    }
+
+    private static long pieceTargets(int from, int king, long checkMask, long pinned, Color sideToMove, Board board) {
+        PieceType type = board.getPiece(from).type();
+        long all = PieceMoves.targets(from, type, sideToMove, board);
+        long targets = all & checkMask;
+        if ((pinned & Bitboards.bit(from)) != 0) {
+            targets &= Bitboards.line(king, from); // Связанная фигура ходит только вдоль линии связки
+        }
+
+        // Взятие на проходе снимает с доски две фигуры с одной горизонтали,
+        // поэтому маски шаха и связки к нему неприменимы: проверяем напрямую
+        int enPassant = board.getEnPassantSquare();
+        if (type == PieceType.PAWN && enPassant >= 0 && (all & Bitboards.bit(enPassant)) != 0) {
+            targets &= ~Bitboards.bit(enPassant);
+            if (isLegalEnPassant(from, enPassant, king, sideToMove, board)) {
+                targets |= Bitboards.bit(enPassant);
+            }
+        }
+        return targets;
+    }
+
+    private static boolean isLegalEnPassant(int from, int to, int king, Color sideToMove, Board board) {
+        Metrics.increment(Counter.LEGALITY_CHECKS);
+        long capturedMask = Bitboards.bit(to + ((sideToMove == Color.WHITE) ? -8 : 8));
+        long occupied = (board.occupied() & ~Bitboards.bit(from) & ~capturedMask) | Bitboards.bit(to);
+        return (AttackChecker.attackersTo(king, sideToMove.opposite(), board, occupied) & ~capturedMask) == 0;
+    }
+
+    /**
+     * Легальные клетки короля из targetMask, включая рокировку
+     */
+    private static long kingTargets(int king, Color sideToMove, Board board, long targetMask) {
+        Color opponent = sideToMove.opposite();
+        // Убираем короля с доски, чтобы он не закрывал собой клетки на линии атаки
+        long occupied = board.occupied() & ~Bitboards.bit(king);
+        long targets = Bitboards.kingAttacks(king) & ~board.pieces(sideToMove) & targetMask;
+        Metrics.add(Counter.LEGALITY_CHECKS, Long.bitCount(targets));
+
+        long legal = 0L;
+        for (; targets != 0; targets &= targets - 1) {
+            int to = Long.numberOfTrailingZeros(targets);
+            if (AttackChecker.attackersTo(to, opponent, board, occupied) == 0) {
+                legal |= Bitboards.bit(to);
+            }
+        }
+        return legal | (PieceMoves.castlingTargets(king, sideToMove, board) & targetMask);
     }
 
     /**
      * Проверяет, оставляет ли ход короля под боем
      */
     public static boolean wouldMoveLeaveKingInCheck(Square from, Square to, Color sideToMove, Board board) {
-        // Сохраняем текущее состояние
-        Piece fromPiece = board.getPiece(from.rank(), from.file());
-        Piece toPiece = board.getPiece(to.rank(), to.file());
-
-        // Виртуально выполняем ход
-        board.setPiece(from.rank(), from.file(), null);
-        board.setPiece(to.rank(), to.file(), fromPiece);
+        return wouldMoveLeaveKingInCheck(from.index(), to.index(), sideToMove, board);
+    }
 
-        // Проверяем, под шахом ли король
-        boolean inCheck = CheckDetector.inCheck(sideToMove, board);
+    /**
+     * Проверяет, оставляет ли ход между клетками с индексами from и to короля под боем.
+     * Доска не изменяется: ход моделируется на копии маски занятых клеток,
+     * поэтому метод безопасно вызывать из нескольких потоков на общей доске
+     */
+    public static boolean wouldMoveLeaveKingInCheck(int from, int to, Color sideToMove, Board board) {
+        Metrics.increment(Counter.LEGALITY_CHECKS);
+        Piece moving = board.getPiece(from);
+        long fromMask = Bitboards.bit(from);
+        long toMask = Bitboards.bit(to);
 
-        // Восстанавливаем состояние
-        board.setPiece(from.rank(), from.file(), fromPiece);
-        board.setPiece(to.rank(), to.file(), toPiece);
+        int king;
+        if (moving != null && moving.type() == PieceType.KING) {
+            king = to;
+        } else {
+            king = board.kingSquare(sideToMove);
+            if (king < 0 || king == from) {
+                return false; // Король не найден
+            }
+        }
 
-        return inCheck;
+        // Взятая фигура на клетке to больше не атакует; при взятии на проходе снимается пешка рядом
+        long capturedMask = toMask;
+        if (moving != null && moving.type() == PieceType.PAWN && to == board.getEnPassantSquare()) {
+            capturedMask = Bitboards.bit(to + ((sideToMove == Color.WHITE) ? -8 : 8));
+        }
+        long occupied = (board.occupied() & ~fromMask & ~capturedMask) | toMask;
+        return (AttackChecker.attackersTo(king, sideToMove.opposite(), board, occupied) & ~capturedMask) != 0;
     }
 
     /**
@@ -66,7 +275,6 @@ public class MoveValidator {
             return false;
         }
 
-        List<Square> legalMoves = getLegalMoves(from, piece, sideToMove, board);
-        return legalMoves.contains(to);
+        return (legalTargets(from.index(), sideToMove, board) & Bitboards.bit(to.index())) != 0;
     }
 }
@@ -2,6 +2,7 @@ package chess.mini.engine.core;
 
 import chess.mini.engine.data.Color;
 import chess.mini.engine.data.Piece;
+import chess.mini.engine.data.PieceType;
 import chess.mini.engine.data.Square;
 
 import java.util.ArrayList;
@@ -11,136 +12,184 @@ import java.util.List;
  * Класс для генерации возможных ходов фигур
  */
 public class PieceMoves {
-    
+
     /**
      * Генерирует все возможные ходы для фигуры на указанной позиции
      */
     public static List<Square> generateMoves(Square from, Piece piece, Board board) {
         List<Square> moves = new ArrayList<>();
-        
-        switch (piece.type()) {
-            case PAWN -> addPawnMoves(from, piece.color(), board, moves);
-            case ROOK -> addRookMoves(from, piece.color(), board, moves);
-            case BISHOP -> addBishopMoves(from, piece.color(), board, moves);
-            case KNIGHT -> addKnightMoves(from, piece.color(), board, moves);
-            case QUEEN -> addQueenMoves(from, piece.color(), board, moves);
-            case KING -> addKingMoves(from, piece.color(), board, moves);
+        for (long targets = targets(from.index(), piece.type(), piece.color(), board); targets != 0; targets &= targets - 1) {
+            moves.add(Square.of(Long.numberOfTrailingZeros(targets)));
         }
-        
         return moves;
     }
-    
-    private static void addPawnMoves(Square from, Color color, Board board, List<Square> legalMoves) {
-        int direction = (color == Color.WHITE) ? 1 : -1;
-        int startRank = (color == Color.WHITE) ? 1 : 6;
-
-        // Ход вперед на 1 клетку
-        int newRank = from.rank() + direction;
-        if (newRank >= 0 && newRank < 8 && board.getPiece(newRank, from.file()) == null) {
-            legalMoves.add(new Square(from.file(), newRank));
 
-            // Первый ход на 2 клетки
-            if (from.rank() == startRank) {
-                int doubleRank = from.rank() + 2 * direction;
-                if (doubleRank >= 0 && doubleRank < 8 && board.getPiece(doubleRank, from.file()) == null) {
-                    legalMoves.add(new Square(from.file(), doubleRank));
-                }
-            }
+    /**
+     * Записывает возможные ходы фигуры с клетки from в буфер (без проверки шаха своему королю)
+     */
+    public static void generateMoves(int from, Board board, MoveList moves) {
+        Piece piece = board.getPiece(from);
+        if (piece != null) {
+            addMoves(from, targets(from, piece.type(), piece.color(), board), piece.type(), board, moves);
         }
+    }
 
-        // Взятие по диагонали
-        for (int fileOffset : new int[]{-1, 1}) {
-            int newFile = from.file() + fileOffset;
-            int newRankCapture = from.rank() + direction;
-
-            if (newFile >= 0 && newFile < 8 && newRankCapture >= 0 && newRankCapture < 8) {
-                Piece targetPiece = board.getPiece(newRankCapture, newFile);
-                if (targetPiece != null && targetPiece.color() != color) {
-                    legalMoves.add(new Square(newFile, newRankCapture));
-                }
-            }
+    /**
+     * Записывает возможные ходы всех фигур заданного цвета в буфер (без проверки шаха своему королю)
+     */
+    public static void generateMoves(Color color, Board board, MoveList moves) {
+        for (int i = 0; i < board.pieceCount(color); i++) {
+            generateMoves(board.pieceSquare(color, i), board, moves);
         }
     }
 
-    private static void addRookMoves(Square from, Color color, Board board, List<Square> legalMoves) {
-        // Горизонтальные и вертикальные ходы
-        int[][] directions = {{0, 1}, {0, -1}, {1, 0}, {-1, 0}};
-        addSlidingMoves(from, color, board, legalMoves, directions);
+    /**
+     * Записывает в буфер только взятия фигур заданного цвета, включая взятие на проходе
+     * и взятия с превращением (без проверки шаха своему королю)
+     */
+    public static void generateCaptures(Color color, Board board, MoveList moves) {
+        for (int i = 0; i < board.pieceCount(color); i++) {
+            int from = board.pieceSquare(color, i);
+            PieceType type = board.getPiece(from).type();
+            addMoves(from, captureTargets(from, type, color, board), type, board, moves);
+        }
     }
 
-    private static void addBishopMoves(Square from, Color color, Board board, List<Square> legalMoves) {
-        // Диагональные ходы
-        int[][] directions = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
-        addSlidingMoves(from, color, board, legalMoves, directions);
+    /**
+     * Битборд клеток, на которые фигура может пойти (без проверки шаха своему королю)
+     */
+    public static long targets(int from, PieceType type, Color color, Board board) {
+        long own = board.pieces(color);
+        long occupied = board.occupied();
+
+        return switch (type) {
+            case PAWN -> pawnTargets(from, color, board);
+            case ROOK -> Bitboards.rookAttacks(from, occupied) & ~own;
+            case BISHOP -> Bitboards.bishopAttacks(from, occupied) & ~own;
+            case KNIGHT -> Bitboards.knightAttacks(from) & ~own;
+            case QUEEN -> Bitboards.queenAttacks(from, occupied) & ~own;
+            case KING -> (Bitboards.kingAttacks(from) & ~own) | castlingTargets(from, color, board);
+        };
     }
 
-    private static void addKnightMoves(Square from, Color color, Board board, List<Square> legalMoves) {
-        int[][] knightMoves = {
-                {-2, -1}, {-2, 1}, {-1, -2}, {-1, 2},
-                {1, -2}, {1, 2}, {2, -1}, {2, 1}
+    /**
+     * Битборд клеток взятий фигуры: клетки с фигурами соперника, для пешки - и клетка взятия на проходе
+     */
+    public static long captureTargets(int from, PieceType type, Color color, Board board) {
+        long enemies = board.pieces(color.opposite());
+        long occupied = board.occupied();
+
+        return switch (type) {
+            case PAWN -> Bitboards.pawnAttacks(color, from) & (enemies | enPassantMask(board));
+            case ROOK -> Bitboards.rookAttacks(from, occupied) & enemies;
+            case BISHOP -> Bitboards.bishopAttacks(from, occupied) & enemies;
+            case KNIGHT -> Bitboards.knightAttacks(from) & enemies;
+            case QUEEN -> Bitboards.queenAttacks(from, occupied) & enemies;
+            case KING -> Bitboards.kingAttacks(from) & enemies;
         };
+    }
 
-        for (int[] move : knightMoves) {
-            int newRank = from.rank() + move[0];
-            int newFile = from.file() + move[1];
+    /**
+     * Битборд клетки взятия на проходе или 0
+     */
+    /**
+     * Может ли хотя бы одна пешка цвета color взять на проходе на клетку square.
+     * Связки не учитываются: как и в Polyglot, клетка взятия на проходе хранится в позиции
+     * и входит в хеш, только если рядом с прошедшей пешкой стоит пешка соперника
+     */
+    public static boolean canCaptureEnPassant(int square, Color color, Board board) {
+        return (Bitboards.pawnAttacks(color.opposite(), square) & board.pieces(PieceType.PAWN, color)) != 0;
+    }
 
-            if (newRank >= 0 && newRank < 8 && newFile >= 0 && newFile < 8) {
-                Piece targetPiece = board.getPiece(newRank, newFile);
-                if (targetPiece == null || targetPiece.color() != color) {
-                    legalMoves.add(new Square(newFile, newRank));
-                }
-            }
-        }
+    static long enPassantMask(Board board) {
+        int enPassant = board.getEnPassantSquare();
+        return enPassant >= 0 ? Bitboards.bit(enPassant) : 0L;
     }
 
-    private static void addQueenMoves(Square from, Color color, Board board, List<Square> legalMoves) {
-        // Комбинация ладьи и слона
-        addRookMoves(from, color, board, legalMoves);
-        addBishopMoves(from, color, board, legalMoves);
+    /**
+     * Клетки назначения короля при рокировке. Проверяются права, пустые клетки между
+     * королем и ладьей, а также что король не под шахом и не проходит через битое поле
+     */
+    static long castlingTargets(int king, Color color, Board board) {
+        int rights = board.getCastlingRights();
+        int home = (color == Color.WHITE) ? 4 : 60;
+        if (king != home) {
+            return 0L;
+        }
+        int kingside = (color == Color.WHITE) ? Board.WHITE_KINGSIDE : Board.BLACK_KINGSIDE;
+        int queenside = (color == Color.WHITE) ? Board.WHITE_QUEENSIDE : Board.BLACK_QUEENSIDE;
+        if ((rights & (kingside | queenside)) == 0 || board.checkers(color) != 0) {
+            return 0L;
+        }
+
+        long occupied = board.occupied();
+        long rooks = board.pieces(PieceType.ROOK, color);
+        Color opponent = color.opposite();
+        long targets = 0L;
+        if ((rights & kingside) != 0 && (rooks & Bitboards.bit(king + 3)) != 0
+                && (occupied & Bitboards.between(king, king + 3)) == 0
+                && AttackChecker.attackersTo(king + 1, opponent, board, occupied) == 0
+                && AttackChecker.attackersTo(king + 2, opponent, board, occupied) == 0) {
+            targets |= Bitboards.bit(king + 2);
+        }
+        if ((rights & queenside) != 0 && (rooks & Bitboards.bit(king - 4)) != 0
+                && (occupied & Bitboards.between(king, king - 4)) == 0
+                && AttackChecker.attackersTo(king - 1, opponent, board, occupied) == 0
+                && AttackChecker.attackersTo(king - 2, opponent, board, occupied) == 0) {
+            targets |= Bitboards.bit(king - 2);
+        }
+        return targets;
     }
 
-    private static void addKingMoves(Square from, Color color, Board board, List<Square> legalMoves) {
-        // Ходы на 1 клетку во всех направлениях
-        for (int rankOffset = -1; rankOffset <= 1; rankOffset++) {
-            for (int fileOffset = -1; fileOffset <= 1; fileOffset++) {
-                if (rankOffset == 0 && fileOffset == 0) continue;
+    private static long pawnTargets(int from, Color color, Board board) {
+        long empty = ~board.occupied();
+        long targets = 0L;
 
-                int newRank = from.rank() + rankOffset;
-                int newFile = from.file() + fileOffset;
+        // Ход вперед на 1 клетку
+        int step = (color == Color.WHITE) ? 8 : -8;
+        int startRank = (color == Color.WHITE) ? 1 : 6;
+        int single = from + step;
+        if (single >= 0 && single < 64 && (empty & Bitboards.bit(single)) != 0) {
+            targets |= Bitboards.bit(single);
 
-                if (newRank >= 0 && newRank < 8 && newFile >= 0 && newFile < 8) {
-                    Piece targetPiece = board.getPiece(newRank, newFile);
-                    if (targetPiece == null || targetPiece.color() != color) {
-                        legalMoves.add(new Square(newFile, newRank));
-                    }
-                }
+            // Первый ход на 2 клетки
+            int twice = single + step;
+            if (Bitboards.rank(from) == startRank && (empty & Bitboards.bit(twice)) != 0) {
+                targets |= Bitboards.bit(twice);
             }
         }
-    }
-
-    private static void addSlidingMoves(Square from, Color color, Board board, List<Square> legalMoves, int[][] directions) {
-        for (int[] direction : directions) {
-            int rankOffset = direction[0];
-            int fileOffset = direction[1];
 
-            for (int step = 1; step < 8; step++) {
-                int newRank = from.rank() + step * rankOffset;
-                int newFile = from.file() + step * fileOffset;
+        // Взятие по диагонали, в том числе на проходе
+        targets |= Bitboards.pawnAttacks(color, from) & (board.pieces(color.opposite()) | enPassantMask(board));
+        return targets;
+    }
 
-                if (newRank < 0 || newRank >= 8 || newFile < 0 || newFile >= 8) {
-                    break;
+    /**
+     * Записывает в буфер ходы фигуры с клетки from на все клетки из битборда targets
+     */
+    static void addMoves(int from, long targets, PieceType type, Board board, MoveList moves) {
+        long occupied = board.occupied();
+        for (; targets != 0; targets &= targets - 1) {
+            int to = Long.numberOfTrailingZeros(targets);
+            int flags = (occupied & Bitboards.bit(to)) != 0 ? Move.CAPTURE : Move.QUIET;
+            if (type == PieceType.PAWN) {
+                if (to < 8 || to >= 56) {
+                    // Превращение: по ходу на каждую фигуру
+                    moves.add(Move.encode(from, to, flags | Move.QUEEN_PROMOTION));
+                    moves.add(Move.encode(from, to, flags | Move.KNIGHT_PROMOTION));
+                    moves.add(Move.encode(from, to, flags | Move.ROOK_PROMOTION));
+                    moves.add(Move.encode(from, to, flags | Move.BISHOP_PROMOTION));
+                    continue;
                 }
-
-                Piece targetPiece = board.getPiece(newRank, newFile);
-                if (targetPiece == null) {
-                    legalMoves.add(new Square(newFile, newRank));
-                } else {
-                    if (targetPiece.color() != color) {
-                        legalMoves.add(new Square(newFile, newRank));
-                    }
-                    break;
+                if (to == board.getEnPassantSquare()) {
+                    flags = Move.EN_PASSANT;
+                } else if (Math.abs(to - from) == 16) {
+                    flags = Move.DOUBLE_PAWN_PUSH;
                 }
+            } else if (type == PieceType.KING && Math.abs(to - from) == 2) {
+                flags = (to > from) ? Move.KING_CASTLE : Move.QUEEN_CASTLE;
             }
+            moves.add(Move.encode(from, to, flags));
         }
     }
 }
@@ -0,0 +1,161 @@
+package chess.mini.engine.core;
+
+import chess.mini.engine.data.Color;
+import chess.mini.engine.data.Piece;
+import chess.mini.engine.data.PieceType;
+
+/**
+ * Таблицы фигура-клетка для миттельшпиля и эндшпиля вместе со стоимостью фигур.
+ * Таблицы записаны с точки зрения белых, восьмая горизонталь сверху;
+ * для черных клетка отражается по вертикали.
+ * Board суммирует значения инкрементально в setPiece, поэтому оценке не нужно обходить доску
+ */
+public class PieceSquareTables {
+    // Вклад фигур в фазу игры: конь и слон 1, ладья 2, ферзь 4; в начальной позиции фаза равна MAX_PHASE
+    public static final int MAX_PHASE = 24;
+    private static final int[] PHASE = {0, 4, 2, 1, 1, 0};
+
+    // Стоимость фигур в порядке PieceType: король, ферзь, ладья, слон, конь, пешка
+    private static final int[] MG_VALUE = {0, 900, 500, 330, 320, 100};
+    private static final int[] EG_VALUE = {0, 900, 520, 330, 300, 120};
+
+    private static final int[] KING_MG = {
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -20, -30, -30, -40, -40, -30, -30, -20,
+            -10, -20, -20, -20, -20, -20, -20, -10,
+            20, 20, 0, 0, 0, 0, 20, 20,
+            20, 30, 10, 0, 0, 10, 30, 20
+    };
+
+    private static final int[] KING_EG = {
+            -50, -40, -30, -20, -20, -30, -40, -50,
+            -30, -20, -10, 0, 0, -10, -20, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -30, 0, 0, 0, 0, -30, -30,
+            -50, -30, -30, -30, -30, -30, -30, -50
+    };
+
+    private static final int[] QUEEN = {
+            -20, -10, -10, -5, -5, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 5, 5, 5, 0, -10,
+            -5, 0, 5, 5, 5, 5, 0, -5,
+            0, 0, 5, 5, 5, 5, 0, -5,
+            -10, 5, 5, 5, 5, 5, 0, -10,
+            -10, 0, 5, 0, 0, 0, 0, -10,
+            -20, -10, -10, -5, -5, -10, -10, -20
+    };
+
+    private static final int[] ROOK_MG = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            5, 10, 10, 10, 10, 10, 10, 5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            0, 0, 0, 5, 5, 0, 0, 0
+    };
+
+    private static final int[] ROOK_EG = {
+            5, 5, 5, 5, 5, 5, 5, 5,
+            10, 10, 10, 10, 10, 10, 10, 10,
+            0, 0, 0, 0, 0, 0, 0, 0,
+            0, 0, 0, 0, 0, 0, 0, 0,
+            0, 0, 0, 0, 0, 0, 0, 0,
+            0, 0, 0, 0, 0, 0, 0, 0,
+            0, 0, 0, 0, 0, 0, 0, 0,
+            0, 0, 0, 0, 0, 0, 0, 0
+    };
+
+    private static final int[] BISHOP = {
+            -20, -10, -10, -10, -10, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 10, 10, 5, 0, -10,
+            -10, 5, 5, 10, 10, 5, 5, -10,
+            -10, 0, 10, 10, 10, 10, 0, -10,
+            -10, 10, 10, 10, 10, 10, 10, -10,
+            -10, 5, 0, 0, 0, 0, 5, -10,
+            -20, -10, -10, -10, -10, -10, -10, -20
+    };
+
+    private static final int[] KNIGHT = {
+            -50, -40, -30, -30, -30, -30, -40, -50,
+            -40, -20, 0, 0, 0, 0, -20, -40,
+            -30, 0, 10, 15, 15, 10, 0, -30,
+            -30, 5, 15, 20, 20, 15, 5, -30,
+            -30, 0, 15, 20, 20, 15, 0, -30,
+            -30, 5, 10, 15, 15, 10, 5, -30,
+            -40, -20, 0, 5, 5, 0, -20, -40,
+            -50, -40, -30, -30, -30, -30, -40, -50
+    };
+
+    private static final int[] PAWN_MG = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            50, 50, 50, 50, 50, 50, 50, 50,
+            10, 10, 20, 30, 30, 20, 10, 10,
+            5, 5, 10, 25, 25, 10, 5, 5,
+            0, 0, 0, 20, 20, 0, 0, 0,
+            5, -5, -10, 0, 0, -10, -5, 5,
+            5, 10, 10, -20, -20, 10, 10, 5,
+            0, 0, 0, 0, 0, 0, 0, 0
+    };
+
+    private static final int[] PAWN_EG = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            80, 80, 80, 80, 80, 80, 80, 80,
+            50, 50, 50, 50, 50, 50, 50, 50,
+            30, 30, 30, 30, 30, 30, 30, 30,
+            15, 15, 15, 15, 15, 15, 15, 15,
+            5, 5, 5, 5, 5, 5, 5, 5,
+            0, 0, 0, 0, 0, 0, 0, 0,
+            0, 0, 0, 0, 0, 0, 0, 0
+    };
+
+    // Итоговые значения (стоимость + таблица) по Piece.index() и клетке
+    private static final int[][] MG = new int[12][64];
+    private static final int[][] EG = new int[12][64];
+
+    static {
+        int[][] mgTables = {KING_MG, QUEEN, ROOK_MG, BISHOP, KNIGHT, PAWN_MG};
+        int[][] egTables = {KING_EG, QUEEN, ROOK_EG, BISHOP, KNIGHT, PAWN_EG};
+        for (PieceType type : PieceType.values()) {
+            for (Color color : Color.values()) {
+                int piece = Piece.of(type, color).index();
+                for (int square = 0; square < 64; square++) {
+                    // Строка 0 таблицы - восьмая горизонталь белых
+                    int row = color == Color.WHITE ? square ^ 56 : square;
+                    MG[piece][square] = MG_VALUE[type.ordinal()] + mgTables[type.ordinal()][row];
+                    EG[piece][square] = EG_VALUE[type.ordinal()] + egTables[type.ordinal()][row];
+                }
+            }
+        }
+    }
+
+    /**
+     * Значение фигуры с индексом Piece.index() на клетке в миттельшпиле
+     */
+    public static int mg(int pieceIndex, int square) {
+        return MG[pieceIndex][square];
+    }
+
+    /**
+     * Значение фигуры с индексом Piece.index() на клетке в эндшпиле
+     */
+    public static int eg(int pieceIndex, int square) {
+        return EG[pieceIndex][square];
+    }
+
+    /**
+     * Вклад фигуры в фазу игры
+     */
+    public static int phase(PieceType type) {
+        return PHASE[type.ordinal()];
+    }
+}
@@ -0,0 +1,117 @@
+package chess.mini.engine.core;
+
+import chess.mini.engine.data.Color;
+import chess.mini.engine.data.Piece;
+import chess.mini.engine.data.PieceType;
+
+/**
+ * Статическая оценка размена (SEE): материальный итог серии взятий на клетке назначения хода,
+ * в которой каждая сторона бьет самой дешевой фигурой и может прекратить размен.
+ * Учитываются рентгеновские атаки дальнобойных фигур, открывающиеся после взятий;
+ * связки не учитываются. Доска не изменяется
+ */
+public class StaticExchange {
+    /**
+     * Размер буфера для see(int, Board, int[]): на доске не больше 32 фигур
+     */
+    public static final int BUFFER_SIZE = 32;
+
+    // Порядок выбора бьющей фигуры: от самой дешевой
+    private static final PieceType[] ATTACKER_ORDER = {
+            PieceType.PAWN, PieceType.KNIGHT, PieceType.BISHOP, PieceType.ROOK, PieceType.QUEEN, PieceType.KING
+    };
+
+    /**
+     * Материальный итог хода для стороны, которая его делает, в единицах PieceType.value().
+     * Для тихих ходов - потеря от взятия фигуры на новой клетке, если оно выгодно сопернику
+     */
+    public static int see(int move, Board board) {
+        return see(move, board, new int[BUFFER_SIZE]);
+    }
+
+    /**
+     * То же, что see(int, Board), но без выделения памяти: промежуточные итоги пишутся
+     * в буфер вызывающего размером не меньше BUFFER_SIZE. Для горячих путей поиска
+     */
+    public static int see(int move, Board board, int[] gain) {
+        if (Move.isCastling(move)) {
+            return 0;
+        }
+        int from = Move.from(move);
+        int to = Move.to(move);
+        Piece moving = board.getPiece(from);
+        Color side = moving.color();
+
+        // gain[d] - итог для стороны, сделавшей d-е взятие, если размен на нем остановится
+        long occupied = board.occupied() & ~Bitboards.bit(from);
+        int captured;
+        if (Move.isEnPassant(move)) {
+            captured = PieceType.PAWN.value();
+            occupied &= ~Bitboards.bit(to + (side == Color.WHITE ? -8 : 8));
+        } else {
+            Piece victim = board.getPiece(to);
+            captured = victim == null ? 0 : victim.type().value();
+        }
+
+        // Стоимость фигуры, которая стоит на клетке и будет взята следующей
+        int onSquare = moving.type().value();
+        gain[0] = captured;
+        if (Move.isPromotion(move)) {
+            onSquare = Move.promotionType(move).value();
+            gain[0] += onSquare - PieceType.PAWN.value();
+        }
+
+        long attackers = AttackChecker.attackersTo(to, board, occupied);
+        int depth = 0;
+        Color turn = side.opposite();
+        while (true) {
+            long own = attackers & board.pieces(turn);
+            if (own == 0) {
+                break;
+            }
+            PieceType type = null;
+            long attacker = 0L;
+            for (PieceType candidate : ATTACKER_ORDER) {
+                long pieces = own & board.pieces(candidate, turn);
+                if (pieces != 0) {
+                    type = candidate;
+                    attacker = pieces & -pieces;
+                    break;
+                }
+            }
+            // Король не может бить на защищенную клетку
+            if (type == PieceType.KING && (attackers & board.pieces(turn.opposite())) != 0) {
+                break;
+            }
+
+            depth++;
+            gain[depth] = onSquare - gain[depth - 1];
+            onSquare = type.value();
+
+            occupied &= ~attacker;
+            attackers = AttackChecker.attackersTo(to, board, occupied);
+            turn = turn.opposite();
+        }
+
+        // Каждая сторона выбирает, продолжать ли размен
+        while (depth > 0) {
+            gain[depth - 1] = -Math.max(-gain[depth - 1], gain[depth]);
+            depth--;
+        }
+        return gain[0];
+    }
+
+    /**
+     * Ход не теряет материал по оценке SEE
+     */
+    public static boolean isSafe(int move, Board board) {
+        return see(move, board) >= 0;
+    }
+
+    /**
+     * Ход не теряет материал по оценке SEE; буфер - как в see(int, Board, int[])
+     */
+    public static boolean isSafe(int move, Board board, int[] gain) {
+        return see(move, board, gain) >= 0;
+    }
+}
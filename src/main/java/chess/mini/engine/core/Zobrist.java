@@ -0,0 +1,71 @@
+package chess.mini.engine.core;
+
+/**
+ * Случайные ключи Zobrist для хеширования позиции.
+ * Ключи генерируются из фиксированного зерна, поэтому хеш одной и той же
+ * позиции совпадает между запусками и процессами
+ */
+public class Zobrist {
+    private static final long[][] PIECE_KEYS = new long[12][64];
+    private static final long SIDE_KEY;
+    private static final long[] CASTLING_KEYS = new long[16];
+    private static final long[] EN_PASSANT_KEYS = new long[8];
+
+    static {
+        long seed = 0x9E3779B97F4A7C15L;
+        for (int piece = 0; piece < 12; piece++) {
+            for (int square = 0; square < 64; square++) {
+                seed = splitMix(seed);
+                PIECE_KEYS[piece][square] = mix(seed);
+            }
+        }
+        seed = splitMix(seed);
+        SIDE_KEY = mix(seed);
+        for (int rights = 0; rights < 16; rights++) {
+            seed = splitMix(seed);
+            CASTLING_KEYS[rights] = mix(seed);
+        }
+        for (int file = 0; file < 8; file++) {
+            seed = splitMix(seed);
+            EN_PASSANT_KEYS[file] = mix(seed);
+        }
+    }
+
+    private static long splitMix(long state) {
+        return state + 0x9E3779B97F4A7C15L;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Ключ фигуры с индексом Piece.index() на клетке square
+     */
+    public static long piece(int pieceIndex, int square) {
+        return PIECE_KEYS[pieceIndex][square];
+    }
+
+    /**
+     * Ключ хода черных
+     */
+    public static long side() {
+        return SIDE_KEY;
+    }
+
+    /**
+     * Ключ набора прав на рокировку (4 бита)
+     */
+    public static long castling(int rights) {
+        return CASTLING_KEYS[rights];
+    }
+
+    /**
+     * Ключ вертикали, на которой возможно взятие на проходе
+     */
+    public static long enPassant(int file) {
+        return EN_PASSANT_KEYS[file];
+    }
+}
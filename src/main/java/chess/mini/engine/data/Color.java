@@ -1,5 +1,12 @@
 package chess.mini.engine.data;
 
 public enum Color {
-    WHITE, BLACK
+    WHITE, BLACK;
+
+    /**
+     * Возвращает цвет противника
+     */
+    public Color opposite() {
+        return this == WHITE ? BLACK : WHITE;
+    }
 }
@@ -1,4 +1,36 @@
 package chess.mini.engine.data;
 
 public record Piece(PieceType type, Color color) {
+    // index: color * 6 + type, 0..11
+    private static final Piece[] CACHE = new Piece[12];
+
+    static {
+        for (Color color : Color.values()) {
+            for (PieceType type : PieceType.values()) {
+                Piece piece = new Piece(type, color);
+                CACHE[piece.index()] = piece;
+            }
+        }
+    }
+
+    /**
+     * Возвращает закэшированный экземпляр фигуры без аллокации
+     */
+    public static Piece of(PieceType type, Color color) {
+        return CACHE[color.ordinal() * 6 + type.ordinal()];
+    }
+
+    /**
+     * Возвращает фигуру по ее индексу (0..11)
+     */
+    public static Piece fromIndex(int index) {
+        return CACHE[index];
+    }
+
+    /**
+     * Индекс фигуры для битбордов: цвет * 6 + тип
+     */
+    public int index() {
+        return color.ordinal() * 6 + type.ordinal();
+    }
 }
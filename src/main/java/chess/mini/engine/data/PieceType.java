@@ -1,5 +1,18 @@
 package chess.mini.engine.data;
 
 public enum PieceType {
-    KING, QUEEN, ROOK, BISHOP, KNIGHT, PAWN
+    KING(0), QUEEN(900), ROOK(500), BISHOP(330), KNIGHT(320), PAWN(100);
+
+    private final int value;
+
+    PieceType(int value) {
+        this.value = value;
+    }
+
+    /**
+     * Материальная стоимость фигуры в сантипешках (король не учитывается)
+     */
+    public int value() {
+        return value;
+    }
 }
@@ -0,0 +1,102 @@
+package chess.mini.engine.data;
+
+/**
+ * Неизменяемый снимок позиции из нескольких long: битборд на каждый тип фигур,
+ * битборд белых фигур, упакованное состояние и хеш Zobrist.
+ * Создается за O(1) из доски, безопасно разделяется между потоками
+ * и может служить ключом отображения (равенство учитывает и счетчики ходов)
+ *
+ * @param state бит 0 - ход черных, биты 1-4 - права на рокировку, биты 8-14 - клетка
+ *              взятия на проходе + 1, биты 16-31 - счетчик полуходов, биты 32-47 - номер хода
+ */
+public record Position(long kings, long queens, long rooks, long bishops, long knights, long pawns,
+                       long white, long state, long hash) {
+
+    /**
+     * Снимок по битбордам фигур в порядке Piece.index() и состоянию доски
+     */
+    public static Position of(long[] pieceBitboards, Color sideToMove, int castlingRights, int enPassantSquare,
+                              int halfmoveClock, int fullmoveNumber, long hash) {
+        long state = (sideToMove == Color.BLACK ? 1L : 0L)
+                | (long) castlingRights << 1
+                | (long) (enPassantSquare + 1) << 8
+                | (long) (halfmoveClock & 0xFFFF) << 16
+                | (long) (fullmoveNumber & 0xFFFF) << 32;
+        long white = pieceBitboards[0] | pieceBitboards[1] | pieceBitboards[2]
+                | pieceBitboards[3] | pieceBitboards[4] | pieceBitboards[5];
+        return new Position(pieceBitboards[0] | pieceBitboards[6], pieceBitboards[1] | pieceBitboards[7],
+                pieceBitboards[2] | pieceBitboards[8], pieceBitboards[3] | pieceBitboards[9],
+                pieceBitboards[4] | pieceBitboards[10], pieceBitboards[5] | pieceBitboards[11], white, state, hash);
+    }
+
+    /**
+     * Битборд фигур заданного типа обоих цветов
+     */
+    public long pieces(PieceType type) {
+        return switch (type) {
+            case KING -> kings;
+            case QUEEN -> queens;
+            case ROOK -> rooks;
+            case BISHOP -> bishops;
+            case KNIGHT -> knights;
+            case PAWN -> pawns;
+        };
+    }
+
+    public long pieces(PieceType type, Color color) {
+        return pieces(type) & pieces(color);
+    }
+
+    public long pieces(Color color) {
+        return color == Color.WHITE ? white : occupied() & ~white;
+    }
+
+    public long occupied() {
+        return kings | queens | rooks | bishops | knights | pawns;
+    }
+
+    /**
+     * Фигура на клетке square или null
+     */
+    public Piece pieceAt(int square) {
+        long mask = 1L << square;
+        if ((occupied() & mask) == 0) {
+            return null;
+        }
+        Color color = (white & mask) != 0 ? Color.WHITE : Color.BLACK;
+        for (PieceType type : PieceType.values()) {
+            if ((pieces(type) & mask) != 0) {
+                return Piece.of(type, color);
+            }
+        }
+        throw new IllegalStateException("Нет фигуры на клетке " + square);
+    }
+
+    public Color sideToMove() {
+        return (state & 1) != 0 ? Color.BLACK : Color.WHITE;
+    }
+
+    public int castlingRights() {
+        return (int) (state >>> 1) & 0xF;
+    }
+
+    /**
+     * Клетка взятия на проходе или -1
+     */
+    public int enPassantSquare() {
+        return (int) (state >>> 8 & 0x7F) - 1;
+    }
+
+    public int halfmoveClock() {
+        return (int) (state >>> 16) & 0xFFFF;
+    }
+
+    public int fullmoveNumber() {
+        return (int) (state >>> 32) & 0xFFFF;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(hash);
+    }
+}
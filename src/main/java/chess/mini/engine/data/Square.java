@@ -2,4 +2,25 @@ package chess.mini.engine.data;
 
 public record Square(int file, int rank) {
     // file: 0..7 (a..h), rank: 0..7 (1..8)
+    private static final Square[] CACHE = new Square[64];
+
+    static {
+        for (int index = 0; index < 64; index++) {
+            CACHE[index] = new Square(index & 7, index >>> 3);
+        }
+    }
+
+    /**
+     * Возвращает закэшированную клетку по индексу rank * 8 + file
+     */
+    public static Square of(int index) {
+        return CACHE[index];
+    }
+
+    /**
+     * Индекс клетки: rank * 8 + file (a1 = 0, h8 = 63)
+     */
+    public int index() {
+        return rank * 8 + file;
+    }
 }
@@ -0,0 +1,191 @@
+package chess.mini.engine.eval;
+
+import chess.mini.engine.core.Bitboards;
+import chess.mini.engine.core.Board;
+import chess.mini.engine.core.PieceSquareTables;
+import chess.mini.engine.data.Color;
+import chess.mini.engine.data.PieceType;
+
+/**
+ * Статическая оценка позиции с плавным переходом от миттельшпиля к эндшпилю.
+ * Материал и таблицы фигура-клетка берутся из сумм, которые Board ведет инкрементально;
+ * по доске заново считаются только пешечная структура и подвижность фигур.
+ * Каждый член имеет значения для миттельшпиля и эндшпиля, которые смешиваются по фазе игры.
+ * Пешечная структура и атаки пешек берутся из PawnHashTable, если она задана.
+ * Экземпляр не потокобезопасен: каждому потоку поиска нужен свой, таблица же может быть общей
+ */
+public class Evaluator {
+    private static final int DOUBLED_MG = -10;
+    private static final int DOUBLED_EG = -20;
+    private static final int ISOLATED_MG = -10;
+    private static final int ISOLATED_EG = -15;
+    // Бонус проходной пешки по горизонтали, считая от своей первой
+    private static final int[] PASSED_MG = {0, 5, 10, 15, 25, 40, 60, 0};
+    private static final int[] PASSED_EG = {0, 10, 20, 35, 60, 90, 130, 0};
+    private static final PieceType[] MOBILE_TYPES = {PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP, PieceType.KNIGHT};
+    // Вес одной доступной клетки по типу фигуры в порядке PieceType
+    private static final int[] MOBILITY_MG = {0, 1, 2, 4, 4, 0};
+    private static final int[] MOBILITY_EG = {0, 2, 4, 5, 4, 0};
+
+    private static final long[] FILES = new long[8];
+    private static final long[] ADJACENT_FILES = new long[8];
+    // Клетки перед пешкой на ее и соседних вертикалях: там не должно быть пешек соперника
+    private static final long[][] PASSED_MASKS = new long[2][64];
+
+    static {
+        for (int file = 0; file < 8; file++) {
+            FILES[file] = Bitboards.FILE_A << file;
+        }
+        for (int file = 0; file < 8; file++) {
+            ADJACENT_FILES[file] = (file > 0 ? FILES[file - 1] : 0L) | (file < 7 ? FILES[file + 1] : 0L);
+        }
+        for (int square = 0; square < 64; square++) {
+            int rank = Bitboards.rank(square);
+            long span = FILES[Bitboards.file(square)] | ADJACENT_FILES[Bitboards.file(square)];
+            long above = rank == 7 ? 0L : -1L << (8 * (rank + 1));
+            long below = (1L << (8 * rank)) - 1;
+            PASSED_MASKS[Color.WHITE.ordinal()][square] = span & above;
+            PASSED_MASKS[Color.BLACK.ordinal()][square] = span & below;
+        }
+    }
+
+    private final PawnHashTable pawnTable;
+    private final PawnHashTable.Entry pawnEntry = new PawnHashTable.Entry();
+
+    /**
+     * Оценщик без кэша пешечной структуры
+     */
+    public Evaluator() {
+        this(null);
+    }
+
+    public Evaluator(PawnHashTable pawnTable) {
+        this.pawnTable = pawnTable;
+    }
+
+    /**
+     * Оценка с точки зрения стороны, которая ходит
+     */
+    public int evaluate(Board board) {
+        int score = evaluateWhite(board);
+        return board.getSideToMove() == Color.WHITE ? score : -score;
+    }
+
+    /**
+     * Оценка с точки зрения белых
+     */
+    public int evaluateWhite(Board board) {
+        long pawns;
+        long whitePawnAttacks;
+        long blackPawnAttacks;
+        if (pawnTable != null && pawnTable.probe(board.pawnHash(), pawnEntry)) {
+            pawns = pawnEntry.score();
+            whitePawnAttacks = pawnEntry.attacks(Color.WHITE);
+            blackPawnAttacks = pawnEntry.attacks(Color.BLACK);
+        } else {
+            pawns = pawnStructure(board);
+            whitePawnAttacks = pawnAttacks(board.pieces(PieceType.PAWN, Color.WHITE), Color.WHITE);
+            blackPawnAttacks = pawnAttacks(board.pieces(PieceType.PAWN, Color.BLACK), Color.BLACK);
+            if (pawnTable != null) {
+                pawnTable.store(board.pawnHash(), pawns, whitePawnAttacks, blackPawnAttacks);
+            }
+        }
+
+        int mg = board.mgScore(Color.WHITE) - board.mgScore(Color.BLACK) + mg(pawns);
+        int eg = board.egScore(Color.WHITE) - board.egScore(Color.BLACK) + eg(pawns);
+
+        for (PieceType type : MOBILE_TYPES) {
+            int mobility = mobility(board, type, Color.WHITE, blackPawnAttacks)
+                    - mobility(board, type, Color.BLACK, whitePawnAttacks);
+            mg += mobility * MOBILITY_MG[type.ordinal()];
+            eg += mobility * MOBILITY_EG[type.ordinal()];
+        }
+
+        int phase = Math.min(board.phase(), PieceSquareTables.MAX_PHASE);
+        return (mg * phase + eg * (PieceSquareTables.MAX_PHASE - phase)) / PieceSquareTables.MAX_PHASE;
+    }
+
+    /**
+     * Оценка пешечной структуры с точки зрения белых: сдвоенные, изолированные и проходные пешки.
+     * Значения миттельшпиля и эндшпиля упакованы в одно число, см. mg и eg
+     */
+    public static long pawnStructure(Board board) {
+        int mg = 0;
+        int eg = 0;
+        for (Color color : Color.values()) {
+            long own = board.pieces(PieceType.PAWN, color);
+            long enemy = board.pieces(PieceType.PAWN, color.opposite());
+            int colorMg = 0;
+            int colorEg = 0;
+            for (int file = 0; file < 8; file++) {
+                int count = Long.bitCount(own & FILES[file]);
+                if (count > 1) {
+                    colorMg += (count - 1) * DOUBLED_MG;
+                    colorEg += (count - 1) * DOUBLED_EG;
+                }
+                if (count > 0 && (own & ADJACENT_FILES[file]) == 0) {
+                    colorMg += count * ISOLATED_MG;
+                    colorEg += count * ISOLATED_EG;
+                }
+            }
+            for (long pieces = own; pieces != 0; pieces &= pieces - 1) {
+                int square = Long.numberOfTrailingZeros(pieces);
+                if ((enemy & PASSED_MASKS[color.ordinal()][square]) == 0) {
+                    int rank = Bitboards.rank(square);
+                    int relativeRank = color == Color.WHITE ? rank : 7 - rank;
+                    colorMg += PASSED_MG[relativeRank];
+                    colorEg += PASSED_EG[relativeRank];
+                }
+            }
+            int sign = color == Color.WHITE ? 1 : -1;
+            mg += sign * colorMg;
+            eg += sign * colorEg;
+        }
+        return pack(mg, eg);
+    }
+
+    /**
+     * Упаковка пары значений миттельшпиля и эндшпиля в одно число
+     */
+    public static long pack(int mg, int eg) {
+        return ((long) mg << 32) | (eg & 0xFFFFFFFFL);
+    }
+
+    public static int mg(long packed) {
+        return (int) (packed >> 32);
+    }
+
+    public static int eg(long packed) {
+        return (int) packed;
+    }
+
+    /**
+     * Число клеток, доступных фигурам типа: не занятых своими фигурами и не атакованных пешками соперника
+     */
+    private static int mobility(Board board, PieceType type, Color color, long enemyPawnAttacks) {
+        long occupied = board.occupied();
+        long available = ~board.pieces(color) & ~enemyPawnAttacks;
+        int count = 0;
+        for (long pieces = board.pieces(type, color); pieces != 0; pieces &= pieces - 1) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            long attacks = switch (type) {
+                case QUEEN -> Bitboards.queenAttacks(square, occupied);
+                case ROOK -> Bitboards.rookAttacks(square, occupied);
+                case BISHOP -> Bitboards.bishopAttacks(square, occupied);
+                default -> Bitboards.knightAttacks(square);
+            };
+            count += Long.bitCount(attacks & available);
+        }
+        return count;
+    }
+
+    /**
+     * Битборд клеток, атакованных пешками цвета
+     */
+    public static long pawnAttacks(long pawns, Color color) {
+        if (color == Color.WHITE) {
+            return ((pawns << 7) & ~Bitboards.FILE_H) | ((pawns << 9) & ~Bitboards.FILE_A);
+        }
+        return ((pawns >>> 9) & ~Bitboards.FILE_H) | ((pawns >>> 7) & ~Bitboards.FILE_A);
+    }
+}
@@ -0,0 +1,132 @@
+package chess.mini.engine.eval;
+
+import chess.mini.engine.data.Color;
+import chess.mini.engine.metrics.Counter;
+import chess.mini.engine.metrics.Metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Кэш пешечной структуры по пешечному ключу Zobrist (Board.pawnHash) фиксированного размера.
+ * Запись - оценка пешечной структуры и битборды атак пешек обоих цветов.
+ * Таблица разбита на корзины по две записи: новая запись встает в первую,
+ * прежняя первая сдвигается во вторую, а самая старая вытесняется.
+ * Как и в таблице транспозиций, потоки работают без блокировок: контрольное слово
+ * записи - ключ, сложенный по XOR со всеми данными, поэтому разорванная запись
+ * воспринимается как промах. Пустая запись совпадает с ключом 0 - позицией без пешек,
+ * для которой нулевые оценка и атаки и так верны
+ */
+public class PawnHashTable {
+    // Слова записи: контрольное слово, оценка, атаки белых пешек, атаки черных пешек
+    private static final int ENTRY_LONGS = 4;
+    private static final int BUCKET_LONGS = 2 * ENTRY_LONGS;
+    private static final int ENTRY_BYTES = ENTRY_LONGS * Long.BYTES;
+
+    private final long[] table;
+    private final int mask;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Данные записи, прочитанные probe. Буфер переиспользуется одним потоком
+     */
+    public static class Entry {
+        private long score;
+        private final long[] attacks = new long[2];
+
+        /**
+         * Оценка пешечной структуры с точки зрения белых, упакованная Evaluator.pack
+         */
+        public long score() {
+            return score;
+        }
+
+        /**
+         * Битборд клеток, атакованных пешками цвета
+         */
+        public long attacks(Color color) {
+            return attacks[color.ordinal()];
+        }
+
+        void set(long score, long whiteAttacks, long blackAttacks) {
+            this.score = score;
+            this.attacks[0] = whiteAttacks;
+            this.attacks[1] = blackAttacks;
+        }
+    }
+
+    public PawnHashTable(int sizeMb) {
+        if (sizeMb <= 0) {
+            throw new IllegalArgumentException("Размер таблицы должен быть положительным");
+        }
+        long buckets = Long.highestOneBit((long) sizeMb * 1024 * 1024 / (2 * ENTRY_BYTES));
+        if (buckets > (1 << 26)) {
+            buckets = 1 << 26;
+        }
+        this.table = new long[(int) buckets * BUCKET_LONGS];
+        this.mask = (int) buckets - 1;
+    }
+
+    /**
+     * Ищет запись по пешечному ключу и при попадании копирует ее в entry
+     */
+    public boolean probe(long key, Entry entry) {
+        int bucket = bucket(key);
+        for (int offset = bucket; offset < bucket + BUCKET_LONGS; offset += ENTRY_LONGS) {
+            long score = table[offset + 1];
+            long whiteAttacks = table[offset + 2];
+            long blackAttacks = table[offset + 3];
+            if ((table[offset] ^ score ^ whiteAttacks ^ blackAttacks) == key) {
+                entry.set(score, whiteAttacks, blackAttacks);
+                hits.increment();
+                Metrics.increment(Counter.PAWN_TABLE_HITS);
+                return true;
+            }
+        }
+        misses.increment();
+        Metrics.increment(Counter.PAWN_TABLE_MISSES);
+        return false;
+    }
+
+    /**
+     * Сохраняет запись в начало корзины, сдвигая прежнюю первую запись во вторую
+     */
+    public void store(long key, long score, long whiteAttacks, long blackAttacks) {
+        int bucket = bucket(key);
+        long first = table[bucket];
+        if ((first ^ table[bucket + 1] ^ table[bucket + 2] ^ table[bucket + 3]) != key) {
+            System.arraycopy(table, bucket, table, bucket + ENTRY_LONGS, ENTRY_LONGS);
+        }
+        table[bucket] = key ^ score ^ whiteAttacks ^ blackAttacks;
+        table[bucket + 1] = score;
+        table[bucket + 2] = whiteAttacks;
+        table[bucket + 3] = blackAttacks;
+    }
+
+    private int bucket(long key) {
+        return ((int) key & mask) * BUCKET_LONGS;
+    }
+
+    public void clear() {
+        Arrays.fill(table, 0L);
+        hits.reset();
+        misses.reset();
+    }
+
+    /**
+     * Число записей таблицы
+     */
+    public int capacity() {
+        return (mask + 1) * 2;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+}
@@ -0,0 +1,26 @@
+package chess.mini.engine.metrics;
+
+/**
+ * Счетчики горячих путей библиотеки
+ */
+public enum Counter {
+    /** Узлы поиска, включая поиск взятий */
+    NODES,
+    /** Генерации списка легальных ходов */
+    MOVE_GENERATIONS,
+    /**
+     * Проверки, не остается ли король под боем: клетки хода короля, взятия на проходе
+     * и вызовы MoveValidator.wouldMoveLeaveKingInCheck
+     */
+    LEGALITY_CHECKS,
+    /** Сканирования атак: карты атак цвета и поиск атакующих клетку */
+    ATTACK_SCANS,
+    TT_HITS,
+    TT_MISSES,
+    PAWN_TABLE_HITS,
+    PAWN_TABLE_MISSES,
+    /** Позиции, оцененные базой окончаний */
+    TABLEBASE_HITS,
+    /** Ходы, взятые из дебютной книги */
+    BOOK_HITS
+}
@@ -0,0 +1,48 @@
+package chess.mini.engine.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+
+/**
+ * Периодическое событие JFR с накопленными значениями счетчиков
+ */
+@Name("chess.mini.Counters")
+@Label("Counters")
+@Category("MiniChess")
+@Description("Накопленные значения счетчиков библиотеки")
+@Period("1 s")
+class CountersEvent extends Event {
+    @Label("Nodes")
+    long nodes;
+
+    @Label("Move Generations")
+    long moveGenerations;
+
+    @Label("Legality Checks")
+    long legalityChecks;
+
+    @Label("Attack Scans")
+    long attackScans;
+
+    @Label("TT Hits")
+    long ttHits;
+
+    @Label("TT Misses")
+    long ttMisses;
+
+    @Label("Pawn Table Hits")
+    long pawnTableHits;
+
+    @Label("Pawn Table Misses")
+    long pawnTableMisses;
+
+    @Label("Tablebase Hits")
+    long tablebaseHits;
+
+    @Label("Book Hits")
+    long bookHits;
+}
@@ -0,0 +1,111 @@
+package chess.mini.engine.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Гистограмма с фиксированными границами корзин. Значение попадает в первую корзину,
+ * верхняя граница которой не меньше значения; последняя корзина не ограничена.
+ * Запись без блокировок, можно вызывать из любого числа потоков
+ */
+public class Histogram {
+    private final long[] upperBounds;
+    private final LongAdder[] buckets;
+
+    /**
+     * @param upperBounds возрастающие верхние границы корзин (включительно)
+     */
+    public Histogram(long... upperBounds) {
+        for (int i = 1; i < upperBounds.length; i++) {
+            if (upperBounds[i] <= upperBounds[i - 1]) {
+                throw new IllegalArgumentException("Границы корзин должны возрастать");
+            }
+        }
+        this.upperBounds = upperBounds.clone();
+        this.buckets = new LongAdder[upperBounds.length + 1];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Границы 1, 2, 4, ... до max включительно
+     */
+    public static Histogram exponential(long max) {
+        long[] bounds = new long[64 - Long.numberOfLeadingZeros(max)];
+        for (int i = 0; i < bounds.length; i++) {
+            bounds[i] = 1L << i;
+        }
+        return new Histogram(bounds);
+    }
+
+    /**
+     * Границы 1, 2, 3, ... до max включительно
+     */
+    public static Histogram linear(int max) {
+        long[] bounds = new long[max];
+        for (int i = 0; i < max; i++) {
+            bounds[i] = i + 1;
+        }
+        return new Histogram(bounds);
+    }
+
+    public void record(long value) {
+        int index = Arrays.binarySearch(upperBounds, value);
+        buckets[index >= 0 ? index : -index - 1].increment();
+    }
+
+    /**
+     * Число корзин, включая последнюю неограниченную
+     */
+    public int buckets() {
+        return buckets.length;
+    }
+
+    /**
+     * Верхняя граница корзины; для последней - Long.MAX_VALUE
+     */
+    public long upperBound(int bucket) {
+        return bucket < upperBounds.length ? upperBounds[bucket] : Long.MAX_VALUE;
+    }
+
+    public long count(int bucket) {
+        return buckets[bucket].sum();
+    }
+
+    /**
+     * Общее число записанных значений
+     */
+    public long count() {
+        long total = 0;
+        for (LongAdder bucket : buckets) {
+            total += bucket.sum();
+        }
+        return total;
+    }
+
+    /**
+     * Верхняя граница корзины, в которую попадает заданная доля значений (0..1), или 0 без значений
+     */
+    public long percentile(double fraction) {
+        long total = count();
+        if (total == 0) {
+            return 0;
+        }
+        long target = (long) Math.ceil(fraction * total);
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i].sum();
+            if (seen >= target && seen > 0) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(buckets.length - 1);
+    }
+
+    public void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package chess.mini.engine.metrics;
+
+import jdk.jfr.FlightRecorder;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Метрики библиотеки: счетчики горячих путей, гистограммы глубины и времени поиска,
+ * слушатели и события JFR (chess.mini.Search и периодическое chess.mini.Counters).
+ * По умолчанию выключены; включаются вызовом setEnabled(true) или свойством
+ * -Dchess.mini.metrics=true. В выключенном состоянии вызов счетчика - чтение одного флага
+ */
+public class Metrics {
+    private static final Counter[] COUNTERS = Counter.values();
+    private static final LongAdder[] ADDERS = new LongAdder[COUNTERS.length];
+
+    private static final Histogram SEARCH_DEPTH = Histogram.linear(64);
+    private static final Histogram SEARCH_TIME_MILLIS = Histogram.exponential(1 << 20);
+
+    private static final List<MetricsListener> LISTENERS = new CopyOnWriteArrayList<>();
+
+    private static volatile boolean enabled;
+    private static boolean periodicEventRegistered;
+
+    static {
+        for (int i = 0; i < ADDERS.length; i++) {
+            ADDERS[i] = new LongAdder();
+        }
+        setEnabled(Boolean.getBoolean("chess.mini.metrics"));
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static synchronized void setEnabled(boolean value) {
+        if (value && !periodicEventRegistered) {
+            FlightRecorder.addPeriodicEvent(CountersEvent.class, Metrics::emitCounters);
+            periodicEventRegistered = true;
+        }
+        enabled = value;
+    }
+
+    public static void increment(Counter counter) {
+        if (enabled) {
+            ADDERS[counter.ordinal()].increment();
+        }
+    }
+
+    public static void add(Counter counter, long value) {
+        if (enabled) {
+            ADDERS[counter.ordinal()].add(value);
+        }
+    }
+
+    public static long get(Counter counter) {
+        return ADDERS[counter.ordinal()].sum();
+    }
+
+    /**
+     * Снимок всех счетчиков
+     */
+    public static Map<Counter, Long> counters() {
+        Map<Counter, Long> snapshot = new EnumMap<>(Counter.class);
+        for (Counter counter : COUNTERS) {
+            snapshot.put(counter, get(counter));
+        }
+        return snapshot;
+    }
+
+    /**
+     * Доля попаданий hits / (hits + misses) или 0 без обращений
+     */
+    public static double hitRate(Counter hits, Counter misses) {
+        long h = get(hits);
+        long total = h + get(misses);
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    /**
+     * Гистограмма завершенных глубин поиска
+     */
+    public static Histogram searchDepth() {
+        return SEARCH_DEPTH;
+    }
+
+    /**
+     * Гистограмма времени поиска в миллисекундах
+     */
+    public static Histogram searchTimeMillis() {
+        return SEARCH_TIME_MILLIS;
+    }
+
+    public static void addListener(MetricsListener listener) {
+        LISTENERS.add(listener);
+    }
+
+    public static void removeListener(MetricsListener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    /**
+     * Учитывает завершенный поиск: гистограммы, слушатели и событие JFR
+     */
+    public static void searchCompleted(int depth, long nodes, int score, long elapsedMillis) {
+        if (!enabled) {
+            return;
+        }
+        SEARCH_DEPTH.record(depth);
+        SEARCH_TIME_MILLIS.record(elapsedMillis);
+        for (MetricsListener listener : LISTENERS) {
+            listener.searchCompleted(depth, nodes, score, elapsedMillis);
+        }
+
+        SearchEvent event = new SearchEvent();
+        if (event.shouldCommit()) {
+            event.depth = depth;
+            event.nodes = nodes;
+            event.score = score;
+            event.elapsed = elapsedMillis;
+            event.commit();
+        }
+    }
+
+    /**
+     * Обнуляет счетчики и гистограммы
+     */
+    public static void reset() {
+        for (LongAdder adder : ADDERS) {
+            adder.reset();
+        }
+        SEARCH_DEPTH.reset();
+        SEARCH_TIME_MILLIS.reset();
+    }
+
+    private static void emitCounters() {
+        CountersEvent event = new CountersEvent();
+        event.nodes = get(Counter.NODES);
+        event.moveGenerations = get(Counter.MOVE_GENERATIONS);
+        event.legalityChecks = get(Counter.LEGALITY_CHECKS);
+        event.attackScans = get(Counter.ATTACK_SCANS);
+        event.ttHits = get(Counter.TT_HITS);
+        event.ttMisses = get(Counter.TT_MISSES);
+        event.pawnTableHits = get(Counter.PAWN_TABLE_HITS);
+        event.pawnTableMisses = get(Counter.PAWN_TABLE_MISSES);
+        event.tablebaseHits = get(Counter.TABLEBASE_HITS);
+        event.bookHits = get(Counter.BOOK_HITS);
+        event.commit();
+    }
+}
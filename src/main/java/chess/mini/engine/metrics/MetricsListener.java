@@ -0,0 +1,18 @@
+package chess.mini.engine.metrics;
+
+/**
+ * Получатель событий метрик. Вызывается в потоке, завершившем поиск,
+ * поэтому реализация должна быть быстрой и потокобезопасной
+ */
+public interface MetricsListener {
+
+    /**
+     * Поиск завершен
+     *
+     * @param depth         последняя полностью просмотренная глубина
+     * @param nodes         число узлов
+     * @param score         оценка лучшего хода
+     * @param elapsedMillis время поиска
+     */
+    void searchCompleted(int depth, long nodes, int score, long elapsedMillis);
+}
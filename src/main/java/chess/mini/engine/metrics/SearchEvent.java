@@ -0,0 +1,30 @@
+package chess.mini.engine.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Событие JFR о завершенном поиске
+ */
+@Name("chess.mini.Search")
+@Label("Search")
+@Category("MiniChess")
+@Description("Завершенный поиск лучшего хода")
+class SearchEvent extends Event {
+    @Label("Depth")
+    int depth;
+
+    @Label("Nodes")
+    long nodes;
+
+    @Label("Score")
+    int score;
+
+    @Label("Elapsed")
+    @Timespan(Timespan.MILLISECONDS)
+    long elapsed;
+}
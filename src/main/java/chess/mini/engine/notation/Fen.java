@@ -0,0 +1,187 @@
+package chess.mini.engine.notation;
+
+import chess.mini.engine.core.Bitboards;
+import chess.mini.engine.core.Board;
+import chess.mini.engine.core.Move;
+import chess.mini.engine.core.PieceMoves;
+import chess.mini.engine.data.Color;
+import chess.mini.engine.data.Piece;
+import chess.mini.engine.data.PieceType;
+
+/**
+ * Чтение и запись позиций в нотации FEN (Forsyth-Edwards Notation)
+ */
+public class Fen {
+    public static final String INITIAL = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    // Буквы фигур по PieceType.ordinal(): король, ферзь, ладья, слон, конь, пешка
+    private static final String PIECE_CHARS = "kqrbnp";
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+
+    /**
+     * Строит доску по строке FEN. Счетчики полуходов и номер хода необязательны
+     */
+    public static Board parse(String fen) {
+        String[] fields = fen.trim().split("\\s+");
+        if (fields.length < 4) {
+            throw invalid(fen);
+        }
+
+        Board board = new Board();
+        String[] ranks = fields[0].split("/");
+        if (ranks.length != 8) {
+            throw invalid(fen);
+        }
+        for (int i = 0; i < 8; i++) {
+            int rank = 7 - i;
+            int file = 0;
+            for (int j = 0; j < ranks[i].length(); j++) {
+                char c = ranks[i].charAt(j);
+                if (c >= '1' && c <= '8') {
+                    file += c - '0';
+                } else {
+                    Piece piece = pieceOf(c);
+                    if (piece == null || file > 7) {
+                        throw invalid(fen);
+                    }
+                    board.setPiece(rank, file++, piece);
+                }
+            }
+            if (file != 8) {
+                throw invalid(fen);
+            }
+        }
+
+        board.setSideToMove(switch (fields[1]) {
+            case "w" -> Color.WHITE;
+            case "b" -> Color.BLACK;
+            default -> throw invalid(fen);
+        });
+
+        int rights = 0;
+        if (!fields[2].equals("-")) {
+            for (int i = 0; i < fields[2].length(); i++) {
+                rights |= switch (fields[2].charAt(i)) {
+                    case 'K' -> Board.WHITE_KINGSIDE;
+                    case 'Q' -> Board.WHITE_QUEENSIDE;
+                    case 'k' -> Board.BLACK_KINGSIDE;
+                    case 'q' -> Board.BLACK_QUEENSIDE;
+                    default -> throw invalid(fen);
+                };
+            }
+        }
+        board.setCastlingRights(rights);
+
+        if (!fields[3].equals("-")) {
+            int square = parseSquare(fields[3]);
+            if (square < 0 || !isValidEnPassant(square, board)) {
+                throw invalid(fen);
+            }
+            // Как и после makeMove, клетка без пешки, способной взять, не сохраняется
+            if (PieceMoves.canCaptureEnPassant(square, board.getSideToMove(), board)) {
+                board.setEnPassantSquare(square);
+            }
+        }
+
+        try {
+            if (fields.length > 4) {
+                board.setHalfmoveClock(Integer.parseInt(fields[4]));
+            }
+            if (fields.length > 5) {
+                board.setFullmoveNumber(Integer.parseInt(fields[5]));
+            }
+        } catch (NumberFormatException e) {
+            throw invalid(fen);
+        }
+        return board;
+    }
+
+    /**
+     * Клетка взятия на проходе возможна, только если соперник только что сделал двойной ход пешкой:
+     * клетка на 6-й горизонтали для хода белых (3-й для черных), пуста, и за ней стоит пешка соперника
+     */
+    private static boolean isValidEnPassant(int square, Board board) {
+        Color side = board.getSideToMove();
+        int forward = side == Color.WHITE ? 8 : -8;
+        return Bitboards.rank(square) == (side == Color.WHITE ? 5 : 2)
+                && board.getPiece(square) == null
+                && Piece.of(PieceType.PAWN, side.opposite()).equals(board.getPiece(square - forward));
+    }
+
+    /**
+     * Записывает позицию доски в строку FEN
+     */
+    public static String toFen(Board board) {
+        StringBuilder fen = new StringBuilder(90);
+        for (int rank = 7; rank >= 0; rank--) {
+            int empty = 0;
+            for (int file = 0; file < 8; file++) {
+                Piece piece = board.getPiece(rank, file);
+                if (piece == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    fen.append(empty);
+                    empty = 0;
+                }
+                fen.append(pieceChar(piece));
+            }
+            if (empty > 0) {
+                fen.append(empty);
+            }
+            if (rank > 0) {
+                fen.append('/');
+            }
+        }
+
+        fen.append(board.getSideToMove() == Color.WHITE ? " w " : " b ");
+
+        int rights = board.getCastlingRights();
+        if (rights == 0) {
+            fen.append('-');
+        } else {
+            if ((rights & Board.WHITE_KINGSIDE) != 0) fen.append('K');
+            if ((rights & Board.WHITE_QUEENSIDE) != 0) fen.append('Q');
+            if ((rights & Board.BLACK_KINGSIDE) != 0) fen.append('k');
+            if ((rights & Board.BLACK_QUEENSIDE) != 0) fen.append('q');
+        }
+
+        int enPassant = board.getEnPassantSquare();
+        fen.append(' ').append(enPassant < 0 ? "-" : Move.squareName(enPassant));
+        fen.append(' ').append(board.getHalfmoveClock()).append(' ').append(board.getFullmoveNumber());
+        return fen.toString();
+    }
+
+    /**
+     * Фигура по букве FEN (заглавная - белая) или null
+     */
+    static Piece pieceOf(char c) {
+        int type = PIECE_CHARS.indexOf(Character.toLowerCase(c));
+        if (type < 0) {
+            return null;
+        }
+        return Piece.of(PIECE_TYPES[type], Character.isUpperCase(c) ? Color.WHITE : Color.BLACK);
+    }
+
+    static char pieceChar(Piece piece) {
+        char c = PIECE_CHARS.charAt(piece.type().ordinal());
+        return piece.color() == Color.WHITE ? Character.toUpperCase(c) : c;
+    }
+
+    /**
+     * Индекс клетки по имени вида e4 или -1
+     */
+    static int parseSquare(String name) {
+        if (name.length() != 2) {
+            return -1;
+        }
+        int file = name.charAt(0) - 'a';
+        int rank = name.charAt(1) - '1';
+        return (file < 0 || file > 7 || rank < 0 || rank > 7) ? -1 : Bitboards.square(rank, file);
+    }
+
+    private static IllegalArgumentException invalid(String fen) {
+        return new IllegalArgumentException("Некорректная строка FEN: " + fen);
+    }
+}
@@ -0,0 +1,128 @@
+package chess.mini.engine.notation;
+
+import chess.mini.engine.ChessEngine;
+import chess.mini.engine.core.Board;
+import chess.mini.engine.core.Move;
+import chess.mini.engine.core.MoveList;
+import chess.mini.engine.core.MoveValidator;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Компактная двоичная запись партии: начальная позиция в формате PositionCodec,
+ * число ходов (varint) и по одному байту на ход - индекс хода в отсортированном
+ * списке легальных ходов позиции. Легальных ходов не больше 218, поэтому байта достаточно,
+ * а сортировка делает запись независимой от порядка генерации
+ */
+public class GameCodec {
+
+    /**
+     * Записывает партию движка от позиции, с которой начата история ходов.
+     * Позиция движка после вызова остается прежней
+     */
+    public static void encode(ChessEngine engine, ByteBuffer out) {
+        int count = engine.getPly();
+        int[] moves = new int[count];
+        for (int i = 0; i < count; i++) {
+            moves[i] = engine.getMove(i);
+        }
+        for (int i = 0; i < count; i++) {
+            engine.unmakeMove();
+        }
+        Board start = engine.getBoardCopy();
+        for (int move : moves) {
+            engine.makeMove(move);
+        }
+        encode(start, moves, out);
+    }
+
+    /**
+     * Записывает начальную позицию и последовательность легальных ходов из нее
+     */
+    public static void encode(Board start, int[] moves, ByteBuffer out) {
+        PositionCodec.encode(start, out);
+        putVarInt(out, moves.length);
+
+        // Ходы выполняются на копии, чтобы не менять переданную доску
+        ChessEngine engine = new ChessEngine(start, start.getSideToMove()).copy();
+        MoveList legal = new MoveList();
+        for (int move : moves) {
+            sortedLegalMoves(engine, legal);
+            int index = indexOf(legal, move);
+            if (index < 0) {
+                throw new IllegalArgumentException("Нелегальный ход в партии: " + Move.toString(move));
+            }
+            out.put((byte) index);
+            engine.makeMove(move);
+        }
+    }
+
+    /**
+     * Размер записи партии из moveCount ходов в байтах
+     */
+    public static int encodedSize(int moveCount) {
+        int varInt = 1;
+        for (int value = moveCount >>> 7; value != 0; value >>>= 7) {
+            varInt++;
+        }
+        return PositionCodec.SIZE + varInt + moveCount;
+    }
+
+    /**
+     * Читает партию с текущей позиции буфера и возвращает движок в конечной позиции;
+     * все ходы партии доступны через getMove и могут быть отменены
+     */
+    public static ChessEngine decode(ByteBuffer in) {
+        Board start = PositionCodec.decode(in, in.position());
+        in.position(in.position() + PositionCodec.SIZE);
+        int count = getVarInt(in);
+
+        ChessEngine engine = new ChessEngine(start, start.getSideToMove());
+        MoveList legal = new MoveList();
+        for (int i = 0; i < count; i++) {
+            sortedLegalMoves(engine, legal);
+            int index = in.get() & 0xFF;
+            if (index >= legal.size()) {
+                throw new IllegalArgumentException("Поврежденная запись партии: ход " + (i + 1));
+            }
+            engine.makeMove(legal.get(index));
+        }
+        return engine;
+    }
+
+    private static void sortedLegalMoves(ChessEngine engine, MoveList legal) {
+        legal.clear();
+        MoveValidator.getLegalMoves(engine.getSideToMove(), engine.getBoard(), legal);
+        Arrays.sort(legal.array(), 0, legal.size());
+    }
+
+    private static int indexOf(MoveList moves, int move) {
+        for (int i = 0; i < moves.size(); i++) {
+            if (moves.get(i) == move) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void putVarInt(ByteBuffer out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    private static int getVarInt(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Поврежденная запись партии: длина");
+    }
+}
@@ -0,0 +1,51 @@
+package chess.mini.engine.notation;
+
+import chess.mini.engine.ChessEngine;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Партия из PGN: теги, начальная позиция в FEN, упакованные ходы и результат.
+ * Партия самодостаточна, поэтому ее можно воспроизводить в любом потоке
+ */
+public record PgnGame(Map<String, String> tags, String startFen, int[] moves, String result) {
+
+    /**
+     * Значение тега или null
+     */
+    public String tag(String name) {
+        return tags.get(name);
+    }
+
+    /**
+     * Новый движок в начальной позиции партии
+     */
+    public ChessEngine startPosition() {
+        return ChessEngine.fromFen(startFen);
+    }
+
+    /**
+     * Новый движок в конечной позиции партии; все ходы можно отменить через unmakeMove
+     */
+    public ChessEngine replay() {
+        ChessEngine engine = startPosition();
+        for (int move : moves) {
+            engine.makeMove(move);
+        }
+        return engine;
+    }
+
+    /**
+     * Вызывает action для начальной позиции и после каждого хода.
+     * Передается один и тот же движок: сохранять его между вызовами нельзя
+     */
+    public void forEachPosition(Consumer<ChessEngine> action) {
+        ChessEngine engine = startPosition();
+        action.accept(engine);
+        for (int move : moves) {
+            engine.makeMove(move);
+            action.accept(engine);
+        }
+    }
+}
@@ -0,0 +1,372 @@
+package chess.mini.engine.notation;
+
+import chess.mini.engine.ChessEngine;
+import chess.mini.engine.core.MoveList;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Потоковое чтение партий PGN. Файл отображается в память целиком (до 2 ГБ)
+ * или читается блоками через канал NIO; байты разбираются без промежуточных строк,
+ * а ходы SAN сопоставляются с легальными ходами прямо в буфере лексемы.
+ * Комментарии, варианты и NAG пропускаются.
+ * Экземпляр не потокобезопасен, но прочитанные партии можно обрабатывать параллельно
+ */
+public class PgnReader implements Iterator<PgnGame>, AutoCloseable {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int EOF = -1;
+
+    private final ReadableByteChannel channel; // null, если файл отображен в память целиком
+    private final ByteBuffer buffer;
+
+    // Переиспользуемые буферы: лексема, байты значения тега, ходы партии, легальные ходы
+    private final StringBuilder token = new StringBuilder(32);
+    private byte[] tagBytes = new byte[64];
+    private int[] moves = new int[256];
+    private final MoveList scratch = new MoveList();
+
+    private long gameNumber;
+
+    public PgnReader(ReadableByteChannel channel) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        this.buffer.flip();
+    }
+
+    public PgnReader(InputStream in) {
+        this(Channels.newChannel(in));
+    }
+
+    private PgnReader(ByteBuffer mapped) {
+        this.channel = null;
+        this.buffer = mapped;
+    }
+
+    /**
+     * Открывает файл PGN: небольшие файлы отображаются в память, большие читаются блоками
+     */
+    public static PgnReader open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+            return new PgnReader(channel);
+        }
+        try (channel) {
+            // Отображение остается действительным после закрытия канала
+            return new PgnReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+    }
+
+    /**
+     * Поток партий файла; файл закрывается при закрытии потока
+     */
+    public static Stream<PgnGame> games(Path path) throws IOException {
+        return open(path).stream();
+    }
+
+    /**
+     * Поток партий файла, пропускающий некорректные партии; ошибка каждой передается в onError
+     */
+    public static Stream<PgnGame> games(Path path, Consumer<? super IllegalArgumentException> onError) throws IOException {
+        return open(path).stream(onError);
+    }
+
+    /**
+     * Оставшиеся партии в виде потока. Для параллельной обработки достаточно вызвать parallel():
+     * чтение останется последовательным, а партии будут раздаваться пакетами.
+     * Первая некорректная партия прерывает поток исключением IllegalArgumentException;
+     * чтобы продолжить чтение после ошибок, используйте stream(onError)
+     */
+    public Stream<PgnGame> stream() {
+        Spliterator<PgnGame> spliterator = Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(this::close);
+    }
+
+    /**
+     * Оставшиеся партии в виде потока, в котором некорректные партии (недопустимый ход или FEN)
+     * пропускаются, а их ошибки передаются в onError в потоке чтения
+     */
+    public Stream<PgnGame> stream(Consumer<? super IllegalArgumentException> onError) {
+        Spliterator<PgnGame> spliterator = new Spliterators.AbstractSpliterator<>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super PgnGame> action) {
+                while (hasNext()) {
+                    PgnGame game;
+                    try {
+                        game = next();
+                    } catch (IllegalArgumentException e) {
+                        onError.accept(e);
+                        continue;
+                    }
+                    action.accept(game);
+                    return true;
+                }
+                return false;
+            }
+        };
+        return StreamSupport.stream(spliterator, false).onClose(this::close);
+    }
+
+    /**
+     * Есть ли во входных данных еще партия. Партия здесь не разбирается, поэтому метод
+     * не выбрасывает исключений разбора: ошибки некорректной партии сообщает next()
+     */
+    @Override
+    public boolean hasNext() {
+        return skipWhitespace() != EOF;
+    }
+
+    /**
+     * Следующая партия. При недопустимом ходе или FEN партия дочитывается до конца и выбрасывается
+     * IllegalArgumentException, после чего чтение можно продолжить со следующей партии
+     */
+    @Override
+    public PgnGame next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return readGame();
+    }
+
+    @Override
+    public void close() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private PgnGame readGame() {
+        int c = skipWhitespace();
+        if (c == EOF) {
+            return null;
+        }
+        gameNumber++;
+
+        Map<String, String> tags = new LinkedHashMap<>();
+        while (c == '[') {
+            read();
+            readTag(tags);
+            c = skipWhitespace();
+        }
+
+        String startFen = tags.getOrDefault("FEN", Fen.INITIAL);
+        ChessEngine engine = null;
+        int count = 0;
+        String result = "*";
+        String error = null;
+        try {
+            engine = ChessEngine.fromFen(startFen);
+        } catch (IllegalArgumentException e) {
+            // Ходы партии все равно дочитываются, иначе они будут приняты за следующую партию
+            error = e.getMessage();
+        }
+
+        while (true) {
+            c = skipWhitespace();
+            if (c == EOF || c == '[') {
+                break; // Партия без результата
+            }
+            if (c == '{') {
+                skipPast('}');
+                continue;
+            }
+            if (c == ';' || c == '%') {
+                skipPast('\n');
+                continue;
+            }
+            if (c == '(') {
+                skipVariation();
+                continue;
+            }
+            if (c == ')') {
+                read();
+                continue;
+            }
+
+            readToken();
+            if (isResult()) {
+                result = token.toString();
+                break;
+            }
+            if (token.charAt(0) == '$' || error != null) {
+                continue;
+            }
+
+            // Номер хода может быть записан слитно с ходом: 1.e4, 12...Nf6
+            int start = 0;
+            while (start < token.length() && (Character.isDigit(token.charAt(start)) || token.charAt(start) == '.')) {
+                start++;
+            }
+            if (start == token.length()) {
+                continue;
+            }
+
+            try {
+                int move = San.parse(token, start, token.length(), engine.getBoard(), scratch);
+                engine.makeMove(move);
+                if (count == moves.length) {
+                    moves = Arrays.copyOf(moves, count * 2);
+                }
+                moves[count++] = move;
+            } catch (IllegalArgumentException e) {
+                error = e.getMessage();
+            }
+        }
+
+        if (error != null) {
+            throw new IllegalArgumentException("Партия " + gameNumber + ": " + error);
+        }
+        return new PgnGame(Collections.unmodifiableMap(tags), startFen, Arrays.copyOf(moves, count), result);
+    }
+
+    /**
+     * Читает тег вида [Name "Value"] после открывающей скобки
+     */
+    private void readTag(Map<String, String> tags) {
+        token.setLength(0);
+        int c;
+        while ((c = read()) != EOF && c != '"' && c != ']') {
+            if (!isWhitespace(c)) {
+                token.append((char) c);
+            }
+        }
+        if (c != '"') {
+            return; // Тег без значения
+        }
+
+        int length = 0;
+        while ((c = read()) != EOF && c != '"') {
+            if (c == '\\') {
+                c = read();
+                if (c == EOF) {
+                    break;
+                }
+            }
+            if (length == tagBytes.length) {
+                tagBytes = Arrays.copyOf(tagBytes, length * 2);
+            }
+            tagBytes[length++] = (byte) c;
+        }
+        skipPast(']');
+        tags.put(token.toString(), new String(tagBytes, 0, length, StandardCharsets.UTF_8));
+    }
+
+    private void readToken() {
+        token.setLength(0);
+        int c;
+        while ((c = peek()) != EOF && !isWhitespace(c) && "{}();[]".indexOf(c) < 0) {
+            token.append((char) read());
+        }
+        if (token.length() == 0) {
+            token.append((char) read()); // Одиночный непредусмотренный символ
+        }
+    }
+
+    private boolean isResult() {
+        return contentEquals("1-0") || contentEquals("0-1") || contentEquals("1/2-1/2") || contentEquals("*");
+    }
+
+    private boolean contentEquals(String text) {
+        if (token.length() != text.length()) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (token.charAt(i) != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void skipVariation() {
+        int depth = 0;
+        int c;
+        while ((c = read()) != EOF) {
+            if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return;
+            } else if (c == '{') {
+                skipPast('}');
+            }
+        }
+    }
+
+    private void skipPast(int terminator) {
+        int c;
+        while ((c = read()) != EOF && c != terminator) {
+            // Пропускаем
+        }
+    }
+
+    /**
+     * Пропускает пробельные символы и возвращает следующий байт, не извлекая его
+     */
+    private int skipWhitespace() {
+        int c;
+        while ((c = peek()) != EOF && isWhitespace(c)) {
+            read();
+        }
+        return c;
+    }
+
+    private static boolean isWhitespace(int c) {
+        return c == ' ' || c == '\n' || c == '\r' || c == '\t' || c == '\f';
+    }
+
+    private int read() {
+        if (!buffer.hasRemaining() && !fill()) {
+            return EOF;
+        }
+        return buffer.get() & 0xFF;
+    }
+
+    private int peek() {
+        if (!buffer.hasRemaining() && !fill()) {
+            return EOF;
+        }
+        return buffer.get(buffer.position()) & 0xFF;
+    }
+
+    private boolean fill() {
+        if (channel == null) {
+            return false;
+        }
+        try {
+            buffer.clear();
+            int read;
+            do {
+                read = channel.read(buffer);
+            } while (read == 0);
+            buffer.flip();
+            return read > 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
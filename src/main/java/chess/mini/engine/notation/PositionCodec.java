@@ -0,0 +1,148 @@
+package chess.mini.engine.notation;
+
+import chess.mini.engine.core.Bitboards;
+import chess.mini.engine.core.Board;
+import chess.mini.engine.data.Color;
+import chess.mini.engine.data.Piece;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Компактная двоичная запись позиции фиксированного размера 32 байта:
+ * <pre>
+ * 0-7   битборд занятых клеток
+ * 8-23  индексы фигур Piece.index() по 4 бита в порядке возрастания клеток (до 32 фигур)
+ * 24    бит 0 - ход черных, биты 1-4 - права на рокировку
+ * 25    клетка взятия на проходе + 1 (0 - нет)
+ * 26-27 счетчик полуходов
+ * 28-29 номер хода
+ * 30-31 зарезервировано
+ * </pre>
+ * Методы чтения работают по абсолютным смещениям и не меняют позицию буфера,
+ * поэтому один отображенный в память файл можно читать из нескольких потоков
+ */
+public class PositionCodec {
+    public static final int SIZE = 32;
+    public static final int MAX_PIECES = 32;
+
+    private static final int PIECES_OFFSET = 8;
+    private static final int STATE_OFFSET = 24;
+    private static final int EN_PASSANT_OFFSET = 25;
+    private static final int HALFMOVE_OFFSET = 26;
+    private static final int FULLMOVE_OFFSET = 28;
+
+    /**
+     * Записывает позицию в буфер с текущей позиции и сдвигает ее на SIZE байт
+     */
+    public static void encode(Board board, ByteBuffer out) {
+        long occupied = board.occupied();
+        if (Long.bitCount(occupied) > MAX_PIECES) {
+            throw new IllegalArgumentException("Позиция содержит больше " + MAX_PIECES + " фигур");
+        }
+
+        int offset = out.position();
+        out.putLong(offset, occupied);
+        for (int i = PIECES_OFFSET; i < STATE_OFFSET; i++) {
+            out.put(offset + i, (byte) 0);
+        }
+        int index = 0;
+        for (long pieces = occupied; pieces != 0; pieces &= pieces - 1, index++) {
+            int pieceIndex = board.getPiece(Long.numberOfTrailingZeros(pieces)).index();
+            int at = offset + PIECES_OFFSET + (index >>> 1);
+            out.put(at, (byte) (out.get(at) | (pieceIndex << ((index & 1) << 2))));
+        }
+
+        int side = board.getSideToMove() == Color.BLACK ? 1 : 0;
+        out.put(offset + STATE_OFFSET, (byte) (side | (board.getCastlingRights() << 1)));
+        out.put(offset + EN_PASSANT_OFFSET, (byte) (board.getEnPassantSquare() + 1));
+        out.putShort(offset + HALFMOVE_OFFSET, (short) board.getHalfmoveClock());
+        out.putShort(offset + FULLMOVE_OFFSET, (short) board.getFullmoveNumber());
+        out.putShort(offset + 30, (short) 0);
+        out.position(offset + SIZE);
+    }
+
+    public static byte[] encode(Board board) {
+        byte[] bytes = new byte[SIZE];
+        encode(board, ByteBuffer.wrap(bytes));
+        return bytes;
+    }
+
+    /**
+     * Восстанавливает доску из записи по смещению offset
+     */
+    public static Board decode(ByteBuffer in, int offset) {
+        Board board = new Board();
+        decode(in, offset, board);
+        return board;
+    }
+
+    /**
+     * Восстанавливает позицию записи в существующую доску (прежнее содержимое стирается)
+     */
+    public static void decode(ByteBuffer in, int offset, Board board) {
+        board.clear();
+        long occupied = occupied(in, offset);
+        int index = 0;
+        for (long pieces = occupied; pieces != 0; pieces &= pieces - 1, index++) {
+            board.setPiece(Long.numberOfTrailingZeros(pieces), Piece.fromIndex(pieceIndex(in, offset, index)));
+        }
+        board.setSideToMove(sideToMove(in, offset));
+        board.setCastlingRights(castlingRights(in, offset));
+        board.setEnPassantSquare(enPassantSquare(in, offset));
+        board.setHalfmoveClock(in.getShort(offset + HALFMOVE_OFFSET) & 0xFFFF);
+        board.setFullmoveNumber(in.getShort(offset + FULLMOVE_OFFSET) & 0xFFFF);
+    }
+
+    public static Board decode(byte[] bytes) {
+        return decode(ByteBuffer.wrap(bytes), 0);
+    }
+
+    /**
+     * Битборд занятых клеток записи без ее декодирования
+     */
+    public static long occupied(ByteBuffer in, int offset) {
+        return in.getLong(offset);
+    }
+
+    /**
+     * Фигура на клетке square или null - без декодирования всей записи
+     */
+    public static Piece pieceAt(ByteBuffer in, int offset, int square) {
+        long occupied = occupied(in, offset);
+        long mask = Bitboards.bit(square);
+        if ((occupied & mask) == 0) {
+            return null;
+        }
+        return Piece.fromIndex(pieceIndex(in, offset, Long.bitCount(occupied & (mask - 1))));
+    }
+
+    /**
+     * Битборд фигур с заданным Piece.index() - без декодирования всей записи
+     */
+    public static long pieces(ByteBuffer in, int offset, int pieceIndex) {
+        long result = 0L;
+        int index = 0;
+        for (long pieces = occupied(in, offset); pieces != 0; pieces &= pieces - 1, index++) {
+            if (pieceIndex(in, offset, index) == pieceIndex) {
+                result |= pieces & -pieces;
+            }
+        }
+        return result;
+    }
+
+    public static Color sideToMove(ByteBuffer in, int offset) {
+        return (in.get(offset + STATE_OFFSET) & 1) != 0 ? Color.BLACK : Color.WHITE;
+    }
+
+    public static int castlingRights(ByteBuffer in, int offset) {
+        return (in.get(offset + STATE_OFFSET) >>> 1) & 0xF;
+    }
+
+    public static int enPassantSquare(ByteBuffer in, int offset) {
+        return (in.get(offset + EN_PASSANT_OFFSET) & 0xFF) - 1;
+    }
+
+    private static int pieceIndex(ByteBuffer in, int offset, int index) {
+        return (in.get(offset + PIECES_OFFSET + (index >>> 1)) >>> ((index & 1) << 2)) & 0xF;
+    }
+}
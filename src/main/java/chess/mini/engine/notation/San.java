@@ -0,0 +1,142 @@
+package chess.mini.engine.notation;
+
+import chess.mini.engine.core.Bitboards;
+import chess.mini.engine.core.Board;
+import chess.mini.engine.core.Move;
+import chess.mini.engine.core.MoveList;
+import chess.mini.engine.core.MoveValidator;
+import chess.mini.engine.data.Piece;
+import chess.mini.engine.data.PieceType;
+
+/**
+ * Разбор ходов в стандартной алгебраической нотации (SAN), например Nbd7, exd6, e8=Q+, O-O.
+ * Ход сопоставляется с легальными ходами позиции, поэтому результат всегда легален.
+ * Разбор идет прямо по CharSequence без создания промежуточных строк
+ */
+public class San {
+    private static final String PIECE_LETTERS = "KQRBN";
+    private static final PieceType[] PIECE_TYPES = {PieceType.KING, PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP, PieceType.KNIGHT};
+
+    /**
+     * Упакованный ход, соответствующий записи SAN в позиции доски
+     */
+    public static int parse(CharSequence san, Board board) {
+        return parse(san, 0, san.length(), board, new MoveList());
+    }
+
+    /**
+     * Разбирает ход из фрагмента san[start, end); moves - буфер для легальных ходов позиции
+     */
+    public static int parse(CharSequence san, int start, int end, Board board, MoveList moves) {
+        // Отбрасываем пометки шаха, мата и оценки хода
+        while (end > start && "+#!?".indexOf(san.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        if (end - start < 2) {
+            throw invalid(san);
+        }
+
+        moves.clear();
+        MoveValidator.getLegalMoves(board.getSideToMove(), board, moves);
+
+        int castle = castleFlag(san, start, end);
+        if (castle >= 0) {
+            for (int i = 0; i < moves.size(); i++) {
+                if (Move.flags(moves.get(i)) == castle) {
+                    return moves.get(i);
+                }
+            }
+            throw invalid(san);
+        }
+
+        PieceType type = PieceType.PAWN;
+        int letter = PIECE_LETTERS.indexOf(san.charAt(start));
+        if (letter >= 0) {
+            type = PIECE_TYPES[letter];
+            start++;
+        }
+
+        // Превращение: e8=Q, e8Q или e8q
+        PieceType promotion = null;
+        if (type == PieceType.PAWN && end - start >= 3) {
+            int promotionLetter = PIECE_LETTERS.indexOf(Character.toUpperCase(san.charAt(end - 1)));
+            char before = san.charAt(end - 2);
+            if (promotionLetter > 0 && (before == '=' || before == '1' || before == '8')) {
+                promotion = PIECE_TYPES[promotionLetter];
+                end -= before == '=' ? 2 : 1;
+            }
+        }
+
+        if (end - start < 2) {
+            throw invalid(san);
+        }
+        int toFile = san.charAt(end - 2) - 'a';
+        int toRank = san.charAt(end - 1) - '1';
+        if (toFile < 0 || toFile > 7 || toRank < 0 || toRank > 7) {
+            throw invalid(san);
+        }
+        int to = Bitboards.square(toRank, toFile);
+
+        // Уточнение исходной вертикали и/или горизонтали; знаки взятия пропускаем
+        int fromFile = -1;
+        int fromRank = -1;
+        for (int i = start; i < end - 2; i++) {
+            char c = san.charAt(i);
+            if (c >= 'a' && c <= 'h') {
+                fromFile = c - 'a';
+            } else if (c >= '1' && c <= '8') {
+                fromRank = c - '1';
+            } else if (c != 'x' && c != ':' && c != '-') {
+                throw invalid(san);
+            }
+        }
+
+        int found = Move.NONE;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int from = Move.from(move);
+            if (Move.to(move) != to || Move.isCastling(move)) {
+                continue;
+            }
+            Piece piece = board.getPiece(from);
+            if (piece.type() != type
+                    || (fromFile >= 0 && Bitboards.file(from) != fromFile)
+                    || (fromRank >= 0 && Bitboards.rank(from) != fromRank)) {
+                continue;
+            }
+            if (Move.isPromotion(move) && Move.promotionType(move) != (promotion == null ? PieceType.QUEEN : promotion)) {
+                continue;
+            }
+            if (found != Move.NONE) {
+                throw new IllegalArgumentException("Неоднозначный ход: " + san);
+            }
+            found = move;
+        }
+        if (found == Move.NONE) {
+            throw invalid(san);
+        }
+        return found;
+    }
+
+    /**
+     * Флаг рокировки для записей O-O / O-O-O (а также 0-0 / 0-0-0) или -1
+     */
+    private static int castleFlag(CharSequence san, int start, int end) {
+        char c = san.charAt(start);
+        if (c != 'O' && c != '0') {
+            return -1;
+        }
+        int length = end - start;
+        if ((length != 3 && length != 5) || san.charAt(start + 1) != '-' || san.charAt(start + 2) != c) {
+            return -1;
+        }
+        if (length == 3) {
+            return Move.KING_CASTLE;
+        }
+        return san.charAt(start + 3) == '-' && san.charAt(start + 4) == c ? Move.QUEEN_CASTLE : -1;
+    }
+
+    private static IllegalArgumentException invalid(CharSequence san) {
+        return new IllegalArgumentException("Недопустимый ход SAN: " + san);
+    }
+}
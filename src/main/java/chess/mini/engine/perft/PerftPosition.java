@@ -0,0 +1,23 @@
+package chess.mini.engine.perft;
+
+import chess.mini.engine.ChessEngine;
+
+import java.util.function.Supplier;
+
+/**
+ * Эталонная позиция для perft с известным числом узлов
+ *
+ * @param name  название позиции
+ * @param setup создает движок в этой позиции
+ * @param nodes эталонное число узлов: nodes[0] - глубина 1, nodes[1] - глубина 2 и т.д.
+ */
+public record PerftPosition(String name, Supplier<ChessEngine> setup, long... nodes) {
+
+    public int maxDepth() {
+        return nodes.length;
+    }
+
+    public long expectedNodes(int depth) {
+        return nodes[depth - 1];
+    }
+}
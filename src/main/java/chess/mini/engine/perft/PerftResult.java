@@ -0,0 +1,21 @@
+package chess.mini.engine.perft;
+
+/**
+ * Результат perft одной позиции на одной глубине
+ */
+public record PerftResult(String name, int depth, long expected, long actual, long nanos) {
+
+    public boolean passed() {
+        return expected == actual;
+    }
+
+    public long nodesPerSecond() {
+        return nanos == 0 ? 0 : actual * 1_000_000_000L / nanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-12s depth %d: %,d nodes (expected %,d) %s, %,d ms, %,d nps",
+                name, depth, actual, expected, passed() ? "OK" : "FAIL", nanos / 1_000_000, nodesPerSecond());
+    }
+}
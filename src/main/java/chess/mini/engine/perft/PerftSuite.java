@@ -0,0 +1,76 @@
+package chess.mini.engine.perft;
+
+import chess.mini.engine.ChessEngine;
+import chess.mini.engine.notation.Fen;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Набор эталонных позиций perft: проверка корректности генератора ходов
+ * и замер его производительности в узлах в секунду.
+ * Запуск: java chess.mini.engine.perft.PerftSuite [максимальная глубина]
+ */
+public class PerftSuite {
+
+    /**
+     * Стандартные позиции с известным числом узлов
+     */
+    public static List<PerftPosition> standardPositions() {
+        return List.of(
+                position("initial", Fen.INITIAL,
+                        20, 400, 8902, 197281, 4865609, 119060324),
+                // Рокировки, взятия на проходе и превращения уже на малой глубине
+                position("kiwipete", "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                        48, 2039, 97862, 4085603, 193690690),
+                // Взятия на проходе со вскрытым шахом по горизонтали
+                position("position 3", "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+                        14, 191, 2812, 43238, 674624, 11030083),
+                position("position 4", "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+                        6, 264, 9467, 422333, 15833292),
+                position("position 5", "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+                        44, 1486, 62379, 2103487, 89941194),
+                position("position 6", "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+                        46, 2079, 89890, 3894594, 164075551)
+        );
+    }
+
+    private static PerftPosition position(String name, String fen, long... nodes) {
+        return new PerftPosition(name, () -> ChessEngine.fromFen(fen), nodes);
+    }
+
+    /**
+     * Прогоняет все позиции до глубины maxDepth и печатает результаты
+     */
+    public static List<PerftResult> run(int maxDepth, PrintStream out) {
+        List<PerftResult> results = new ArrayList<>();
+        for (PerftPosition position : standardPositions()) {
+            ChessEngine engine = position.setup().get();
+            for (int depth = 1; depth <= Math.min(maxDepth, position.maxDepth()); depth++) {
+                long start = System.nanoTime();
+                long nodes = engine.perft(depth);
+                PerftResult result = new PerftResult(position.name(), depth, position.expectedNodes(depth),
+                        nodes, System.nanoTime() - start);
+                results.add(result);
+                if (out != null) {
+                    out.println(result);
+                }
+            }
+        }
+        return results;
+    }
+
+    public static void main(String[] args) {
+        int maxDepth = args.length > 0 ? Integer.parseInt(args[0]) : Integer.MAX_VALUE;
+        List<PerftResult> results = run(maxDepth, System.out);
+
+        long nodes = results.stream().mapToLong(PerftResult::actual).sum();
+        long nanos = results.stream().mapToLong(PerftResult::nanos).sum();
+        long failed = results.stream().filter(result -> !result.passed()).count();
+        System.out.printf("Total: %,d nodes, %,d nps, %d failed%n", nodes, nanos == 0 ? 0 : nodes * 1_000_000_000L / nanos, failed);
+        if (failed > 0) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package chess.mini.engine.search;
+
+import chess.mini.engine.ChessEngine;
+import chess.mini.engine.book.OpeningBook;
+import chess.mini.engine.eval.PawnHashTable;
+import chess.mini.engine.metrics.Metrics;
+import chess.mini.engine.tablebase.Tablebase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Параллельный поиск Lazy SMP: вспомогательные потоки ищут ту же позицию
+ * на своих копиях движка и делятся результатами только через общую
+ * таблицу транспозиций. Результат берется из основного потока,
+ * после его завершения вспомогательные потоки останавливаются
+ */
+public class ParallelSearch implements AutoCloseable {
+    private final TranspositionTable table;
+    private final ExecutorService executor;
+    private final Search mainSearch;
+    private final List<Search> helpers = new ArrayList<>();
+
+    /**
+     * @param threads  общее число потоков поиска, включая вызывающий
+     * @param executor исполнитель для вспомогательных потоков; закрывается вместе с поиском
+     */
+    public ParallelSearch(TranspositionTable table, int threads, ExecutorService executor) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Число потоков должно быть положительным");
+        }
+        this.table = table;
+        this.executor = executor;
+        PawnHashTable pawnTable = new PawnHashTable(Search.DEFAULT_PAWN_TABLE_MB * threads);
+        this.mainSearch = new Search(table, pawnTable);
+        for (int i = 1; i < threads; i++) {
+            helpers.add(new Search(table, pawnTable));
+        }
+    }
+
+    /**
+     * Поиск на платформенных потоках
+     */
+    public static ParallelSearch withPlatformThreads(TranspositionTable table, int threads) {
+        return new ParallelSearch(table, threads, Executors.newFixedThreadPool(Math.max(1, threads - 1), runnable -> {
+            Thread thread = new Thread(runnable, "search-helper");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    /**
+     * Поиск на виртуальных потоках
+     */
+    public static ParallelSearch withVirtualThreads(TranspositionTable table, int threads) {
+        return new ParallelSearch(table, threads, Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    /**
+     * Подключает дебютную книгу: ход из книги возвращается без запуска потоков поиска
+     */
+    public void setOpeningBook(OpeningBook book) {
+        mainSearch.setOpeningBook(book);
+    }
+
+    /**
+     * Подключает базу окончаний ко всем потокам поиска
+     */
+    public void setTablebase(Tablebase tablebase) {
+        mainSearch.setTablebase(tablebase);
+        for (Search helper : helpers) {
+            helper.setTablebase(tablebase);
+        }
+    }
+
+    /**
+     * Задает кэш пешечной структуры, общий для всех потоков поиска
+     */
+    public void setPawnHashTable(PawnHashTable pawnTable) {
+        mainSearch.setPawnHashTable(pawnTable);
+        for (Search helper : helpers) {
+            helper.setPawnHashTable(pawnTable);
+        }
+    }
+
+    /**
+     * Ищет лучший ход. Позиция движка не изменяется, вспомогательные потоки работают на копиях
+     */
+    public SearchResult search(ChessEngine engine, SearchLimits limits) {
+        SearchResult bookResult = mainSearch.probeBook(engine);
+        if (bookResult != null) {
+            return bookResult;
+        }
+        table.newSearch();
+
+        // Вспомогательные потоки без лимита узлов: их останавливает основной поток
+        SearchLimits helperLimits = limits.withNodes(0);
+        List<Future<SearchResult>> futures = new ArrayList<>(helpers.size());
+        for (int i = 0; i < helpers.size(); i++) {
+            Search helper = helpers.get(i);
+            ChessEngine helperEngine = engine.copy();
+            // Часть потоков начинает с большей глубины, чтобы потоки расходились по дереву
+            int firstDepth = 1 + (i % 2);
+            helper.prepare();
+            futures.add(executor.submit(() -> helper.search(helperEngine, helperLimits, firstDepth)));
+        }
+
+        SearchResult main;
+        try {
+            mainSearch.prepare();
+            main = mainSearch.search(engine, limits, 1);
+        } finally {
+            for (Search helper : helpers) {
+                helper.stop();
+            }
+        }
+
+        long nodes = main.nodes();
+        for (Future<SearchResult> future : futures) {
+            try {
+                nodes += future.get().nodes();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Ошибка во вспомогательном потоке поиска", e.getCause());
+            }
+        }
+        Metrics.searchCompleted(main.depth(), nodes, main.score(), main.elapsedMillis());
+        return new SearchResult(main.bestMove(), main.score(), main.depth(), nodes, main.elapsedMillis());
+    }
+
+    /**
+     * Останавливает все потоки текущего поиска
+     */
+    public void stop() {
+        mainSearch.stop();
+        for (Search helper : helpers) {
+            helper.stop();
+        }
+    }
+
+    public int getThreads() {
+        return helpers.size() + 1;
+    }
+
+    @Override
+    public void close() {
+        stop();
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,447 @@
+package chess.mini.engine.search;
+
+import chess.mini.engine.ChessEngine;
+import chess.mini.engine.book.OpeningBook;
+import chess.mini.engine.core.Board;
+import chess.mini.engine.core.CheckDetector;
+import chess.mini.engine.core.Move;
+import chess.mini.engine.core.MoveList;
+import chess.mini.engine.core.MoveValidator;
+import chess.mini.engine.core.StaticExchange;
+import chess.mini.engine.data.Color;
+import chess.mini.engine.data.Piece;
+import chess.mini.engine.data.PieceType;
+import chess.mini.engine.eval.Evaluator;
+import chess.mini.engine.eval.PawnHashTable;
+import chess.mini.engine.metrics.Counter;
+import chess.mini.engine.metrics.Metrics;
+import chess.mini.engine.tablebase.Tablebase;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Поиск лучшего хода: negamax с альфа-бета отсечениями, итеративным углублением
+ * и поиском взятий (quiescence), в котором взятия с отрицательной SEE отсекаются.
+ * Ходы упорядочиваются по ходу из таблицы транспозиций, MVV-LVA для взятий, ходам-убийцам и истории.
+ * Экземпляр не потокобезопасен: один поиск за раз
+ */
+public class Search {
+    public static final int MAX_PLY = 128;
+    public static final int MATE = 30000;
+    private static final int INFINITY = 32000;
+
+    // Проверка лимитов раз в столько узлов
+    private static final int CHECK_INTERVAL = 1024;
+
+    private static final int TT_MOVE_SCORE = 1_000_000;
+    private static final int CAPTURE_SCORE = 100_000;
+    private static final int KILLER_SCORE = 90_000;
+
+    // Размер собственного кэша пешечной структуры, пока не задан общий
+    static final int DEFAULT_PAWN_TABLE_MB = 1;
+
+    private final TranspositionTable table;
+    private OpeningBook book;
+    private Tablebase tablebase;
+    private Evaluator evaluator;
+
+    private final MoveList[] moveLists = new MoveList[MAX_PLY + 1];
+    private final int[][] moveScores = new int[MAX_PLY + 1][MoveList.MAX_MOVES];
+    private final int[][] killers = new int[MAX_PLY + 1][2];
+    private final int[][] history = new int[12][64];
+    private final int[] seeGain = new int[StaticExchange.BUFFER_SIZE];
+    private final MoveList bookMoves = new MoveList();
+
+    private volatile boolean stopped;
+    private ChessEngine engine;
+    private Board board;
+    private long nodes;
+    private long nodeLimit;
+    private long deadline;
+    private int rootBestMove;
+
+    public Search(TranspositionTable table) {
+        this(table, new PawnHashTable(DEFAULT_PAWN_TABLE_MB));
+    }
+
+    /**
+     * Поиск с заданным кэшем пешечной структуры; один кэш можно разделять между несколькими поисками
+     */
+    public Search(TranspositionTable table, PawnHashTable pawnTable) {
+        this.table = table;
+        this.evaluator = new Evaluator(pawnTable);
+        for (int ply = 0; ply <= MAX_PLY; ply++) {
+            moveLists[ply] = new MoveList();
+        }
+    }
+
+    /**
+     * Подключает дебютную книгу: если позиция есть в книге, ход берется из нее без поиска
+     */
+    public void setOpeningBook(OpeningBook book) {
+        this.book = book;
+    }
+
+    /**
+     * Подключает базу окончаний: позиции с малым числом фигур оцениваются точно, без перебора
+     */
+    public void setTablebase(Tablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+
+    /**
+     * Задает кэш пешечной структуры; один кэш можно разделять между несколькими поисками
+     */
+    public void setPawnHashTable(PawnHashTable pawnTable) {
+        this.evaluator = new Evaluator(pawnTable);
+    }
+
+    /**
+     * Ищет лучший ход в позиции движка в заданных пределах.
+     * Позиция движка после поиска остается прежней
+     */
+    public SearchResult search(ChessEngine engine, SearchLimits limits) {
+        SearchResult bookResult = probeBook(engine);
+        if (bookResult != null) {
+            return bookResult;
+        }
+        stopped = false;
+        table.newSearch();
+        SearchResult result = search(engine, limits, 1);
+        Metrics.searchCompleted(result.depth(), result.nodes(), result.score(), result.elapsedMillis());
+        return result;
+    }
+
+    /**
+     * Поиск, начинающий итеративное углубление с глубины firstDepth.
+     * Не сбрасывает флаг остановки и не начинает новое поколение таблицы транспозиций:
+     * этим управляет координатор параллельного поиска
+     */
+    SearchResult search(ChessEngine engine, SearchLimits limits, int firstDepth) {
+        long start = System.nanoTime();
+        this.engine = engine;
+        this.board = engine.getBoard();
+        this.nodes = 0;
+        this.nodeLimit = limits.nodes() > 0 ? limits.nodes() : Long.MAX_VALUE;
+        this.deadline = limits.timeMillis() > 0 ? start + limits.timeMillis() * 1_000_000 : Long.MAX_VALUE;
+        int maxDepth = limits.depth() > 0 ? Math.min(limits.depth(), MAX_PLY - 1) : MAX_PLY - 1;
+
+        clearHeuristics();
+
+        MoveList rootMoves = moveLists[0];
+        rootMoves.clear();
+        engine.getLegalMoves(rootMoves);
+        if (rootMoves.isEmpty()) {
+            int score = engine.inCheck() ? -MATE : 0;
+            return new SearchResult(Move.NONE, score, 0, 0, elapsedMillis(start));
+        }
+
+        int bestMove = rootMoves.get(0);
+        int bestScore = 0;
+        int completedDepth = 0;
+
+        for (int depth = Math.min(firstDepth, maxDepth); depth <= maxDepth; depth++) {
+            int score = negamax(depth, -INFINITY, INFINITY, 0);
+            if (stopped) {
+                break; // Результат незавершенной итерации ненадежен
+            }
+
+            bestMove = rootBestMove;
+            bestScore = score;
+            completedDepth = depth;
+
+            if (Math.abs(score) >= MATE - MAX_PLY) {
+                break; // Найден форсированный мат
+            }
+        }
+
+        Metrics.add(Counter.NODES, nodes);
+        return new SearchResult(bestMove, bestScore, completedDepth, nodes, elapsedMillis(start));
+    }
+
+    /**
+     * Ход из дебютной книги в виде результата поиска нулевой глубины или null
+     */
+    SearchResult probeBook(ChessEngine engine) {
+        if (book == null) {
+            return null;
+        }
+        long start = System.nanoTime();
+        int move = book.pickMove(engine, ThreadLocalRandom.current(), bookMoves);
+        if (move == Move.NONE) {
+            return null;
+        }
+        Metrics.increment(Counter.BOOK_HITS);
+        return new SearchResult(move, 0, 0, 0, elapsedMillis(start));
+    }
+
+    /**
+     * Сбрасывает флаг остановки перед запуском поиска из другого потока
+     */
+    void prepare() {
+        stopped = false;
+    }
+
+    /**
+     * Прерывает текущий поиск; search вернет результат последней завершенной итерации
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    private int negamax(int depth, int alpha, int beta, int ply) {
+        if (checkLimits()) {
+            return 0;
+        }
+
+        Color side = board.getSideToMove();
+        boolean inCheck = CheckDetector.inCheck(side, board);
+        if (inCheck) {
+            depth++; // Продление при шахе
+        }
+        if (depth <= 0 || ply >= MAX_PLY) {
+            return quiescence(alpha, beta, ply);
+        }
+        nodes++;
+
+        // Повторение позиции или правило 50 ходов - ничья, дальше искать нечего
+        if (ply > 0 && (board.getHalfmoveClock() >= 100 || engine.isRepetition())) {
+            return 0;
+        }
+
+        if (ply > 0 && tablebase != null) {
+            int value = tablebase.probe(board);
+            if (value != Tablebase.NOT_FOUND) {
+                Metrics.increment(Counter.TABLEBASE_HITS);
+                return tablebaseScore(value, ply);
+            }
+        }
+
+        long key = board.hash();
+        int ttMove = Move.NONE;
+        long data = table.probe(key);
+        if (data != TranspositionTable.NO_ENTRY) {
+            ttMove = TranspositionTable.move(data);
+            if (ply > 0 && TranspositionTable.depth(data) >= depth) {
+                int ttScore = scoreFromTable(TranspositionTable.score(data), ply);
+                int bound = TranspositionTable.bound(data);
+                if (bound == TranspositionTable.BOUND_EXACT
+                        || (bound == TranspositionTable.BOUND_LOWER && ttScore >= beta)
+                        || (bound == TranspositionTable.BOUND_UPPER && ttScore <= alpha)) {
+                    return ttScore;
+                }
+            }
+        }
+
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        MoveValidator.getLegalMoves(side, board, moves);
+        if (moves.isEmpty()) {
+            return inCheck ? -MATE + ply : 0;
+        }
+        scoreMoves(moves, moveScores[ply], ttMove, ply);
+
+        int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = Move.NONE;
+
+        for (int i = 0; i < moves.size(); i++) {
+            int move = pickNext(moves, moveScores[ply], i);
+            int movedPiece = board.getPiece(Move.from(move)).index();
+
+            engine.makeMove(move);
+            int score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+            engine.unmakeMove();
+
+            if (stopped) {
+                return 0;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                if (ply == 0) {
+                    rootBestMove = move;
+                }
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+            if (alpha >= beta) {
+                if (!Move.isCapture(move)) {
+                    storeKiller(move, ply);
+                    history[movedPiece][Move.to(move)] += depth * depth;
+                }
+                break;
+            }
+        }
+
+        int bound = bestScore >= beta ? TranspositionTable.BOUND_LOWER
+                : bestScore > originalAlpha ? TranspositionTable.BOUND_EXACT
+                : TranspositionTable.BOUND_UPPER;
+        table.store(key, bestMove, scoreToTable(bestScore, ply), depth, bound);
+        return bestScore;
+    }
+
+    private int quiescence(int alpha, int beta, int ply) {
+        if (checkLimits()) {
+            return 0;
+        }
+        nodes++;
+
+        int standPat = evaluator.evaluate(board);
+        if (standPat >= beta || ply >= MAX_PLY) {
+            return standPat;
+        }
+        if (standPat > alpha) {
+            alpha = standPat;
+        }
+
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        MoveValidator.getLegalCaptures(board.getSideToMove(), board, moves);
+        scoreMoves(moves, moveScores[ply], Move.NONE, ply);
+
+        for (int i = 0; i < moves.size(); i++) {
+            int move = pickNext(moves, moveScores[ply], i);
+            // Взятия, проигрывающие материал в размене, не рассматриваем
+            if (!StaticExchange.isSafe(move, board, seeGain)) {
+                continue;
+            }
+
+            engine.makeMove(move);
+            int score = -quiescence(-beta, -alpha, ply + 1);
+            engine.unmakeMove();
+
+            if (stopped) {
+                return 0;
+            }
+            if (score >= beta) {
+                return score;
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+        }
+        return alpha;
+    }
+
+    private void scoreMoves(MoveList moves, int[] scores, int ttMove, int ply) {
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            Piece piece = board.getPiece(Move.from(move));
+            if (move == ttMove) {
+                scores[i] = TT_MOVE_SCORE;
+            } else if (Move.isCapture(move)) {
+                // MVV-LVA: сначала самая ценная жертва, затем самый дешевый нападающий
+                Piece victim = board.getPiece(Move.to(move));
+                int victimValue = victim == null ? PieceType.PAWN.value() : victim.type().value(); // Взятие на проходе
+                scores[i] = CAPTURE_SCORE + victimValue * 10
+                        - piece.type().value() / 10;
+            } else if (move == killers[ply][0]) {
+                scores[i] = KILLER_SCORE;
+            } else if (move == killers[ply][1]) {
+                scores[i] = KILLER_SCORE - 1;
+            } else {
+                scores[i] = Math.min(history[piece.index()][Move.to(move)], KILLER_SCORE - 2);
+            }
+        }
+    }
+
+    /**
+     * Выбирает ход с наибольшей оценкой среди оставшихся и ставит его на позицию index
+     */
+    private static int pickNext(MoveList moves, int[] scores, int index) {
+        int best = index;
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        if (best != index) {
+            int move = moves.get(best);
+            moves.set(best, moves.get(index));
+            moves.set(index, move);
+            int score = scores[best];
+            scores[best] = scores[index];
+            scores[index] = score;
+        }
+        return moves.get(index);
+    }
+
+    private void storeKiller(int move, int ply) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+    }
+
+    private void clearHeuristics() {
+        for (int[] killer : killers) {
+            killer[0] = Move.NONE;
+            killer[1] = Move.NONE;
+        }
+        for (int[] row : history) {
+            Arrays.fill(row, 0);
+        }
+    }
+
+    /**
+     * Проверяет лимиты узлов и времени, а также внешнюю остановку и прерывание потока
+     */
+    private boolean checkLimits() {
+        if (stopped) {
+            return true;
+        }
+        if (nodes >= nodeLimit) {
+            stopped = true;
+        } else if ((nodes & (CHECK_INTERVAL - 1)) == 0
+                && (System.nanoTime() >= deadline || Thread.currentThread().isInterrupted())) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    /**
+     * Перевод значения базы окончаний в оценку поиска с учетом расстояния от корня
+     */
+    private static int tablebaseScore(int value, int ply) {
+        if (value > 0) {
+            return MATE - ply - Tablebase.pliesToMate(value);
+        }
+        if (value < 0) {
+            return -MATE + ply + Tablebase.pliesToMate(value);
+        }
+        return 0;
+    }
+
+    // Матовые оценки в таблице хранятся относительно текущего узла, а не корня
+
+    private static int scoreToTable(int score, int ply) {
+        if (score >= MATE - MAX_PLY) {
+            return score + ply;
+        }
+        if (score <= -MATE + MAX_PLY) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private static int scoreFromTable(int score, int ply) {
+        if (score >= MATE - MAX_PLY) {
+            return score - ply;
+        }
+        if (score <= -MATE + MAX_PLY) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    private static long elapsedMillis(long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
@@ -0,0 +1,36 @@
+package chess.mini.engine.search;
+
+/**
+ * Ограничения поиска: максимальная глубина, число узлов и время.
+ * Значение 0 означает отсутствие ограничения
+ *
+ * @param depth      максимальная глубина итеративного углубления
+ * @param nodes      жесткий лимит узлов
+ * @param timeMillis жесткий лимит времени в миллисекундах
+ */
+public record SearchLimits(int depth, long nodes, long timeMillis) {
+
+    public static SearchLimits depth(int depth) {
+        return new SearchLimits(depth, 0, 0);
+    }
+
+    public static SearchLimits nodes(long nodes) {
+        return new SearchLimits(0, nodes, 0);
+    }
+
+    public static SearchLimits time(long timeMillis) {
+        return new SearchLimits(0, 0, timeMillis);
+    }
+
+    public SearchLimits withDepth(int depth) {
+        return new SearchLimits(depth, nodes, timeMillis);
+    }
+
+    public SearchLimits withNodes(long nodes) {
+        return new SearchLimits(depth, nodes, timeMillis);
+    }
+
+    public SearchLimits withTime(long timeMillis) {
+        return new SearchLimits(depth, nodes, timeMillis);
+    }
+}
@@ -0,0 +1,28 @@
+package chess.mini.engine.search;
+
+import chess.mini.engine.core.Move;
+
+/**
+ * Результат поиска
+ *
+ * @param bestMove      лучший найденный ход (упакованный) или Move.NONE, если ходов нет
+ * @param score         оценка в сантипешках с точки зрения стороны, которая ходит
+ * @param depth         глубина последней полностью завершенной итерации
+ * @param nodes         число посещенных узлов
+ * @param elapsedMillis затраченное время в миллисекундах
+ */
+public record SearchResult(int bestMove, int score, int depth, long nodes, long elapsedMillis) {
+
+    /**
+     * Проверяет, является ли оценка матовой
+     */
+    public boolean isMateScore() {
+        return Math.abs(score) >= Search.MATE - Search.MAX_PLY;
+    }
+
+    @Override
+    public String toString() {
+        return "bestmove " + (bestMove == Move.NONE ? "(none)" : Move.toString(bestMove))
+                + " score " + score + " depth " + depth + " nodes " + nodes + " time " + elapsedMillis;
+    }
+}
@@ -0,0 +1,203 @@
+package chess.mini.engine.search;
+
+import chess.mini.engine.metrics.Counter;
+import chess.mini.engine.metrics.Metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Таблица транспозиций фиксированного размера на основе long[].
+ * Потоки читают и пишут без блокировок: каждая запись хранится как пара
+ * (key ^ data, data), поэтому разорванная параллельной записью запись
+ * не пройдет проверку ключа и будет воспринята как промах
+ */
+public class TranspositionTable {
+    public static final int BOUND_EXACT = 1;
+    public static final int BOUND_LOWER = 2;
+    public static final int BOUND_UPPER = 3;
+
+    /**
+     * Значение, которое probe возвращает при промахе
+     */
+    public static final long NO_ENTRY = 0L;
+
+    private static final int ENTRY_BYTES = 16;
+    // Старший бит отличает сохраненную запись от пустой клетки таблицы
+    private static final long VALID = 1L << 63;
+
+    /**
+     * Политика замены записи при коллизии индекса
+     */
+    public enum ReplacementPolicy {
+        /** Новая запись всегда вытесняет старую */
+        ALWAYS,
+        /** Запись вытесняется только записью с не меньшей глубиной */
+        DEPTH_PREFERRED,
+        /** Как DEPTH_PREFERRED, но записи прошлых поисков вытесняются всегда */
+        AGE_AND_DEPTH
+    }
+
+    private final long[] table;
+    private final int mask;
+    private final ReplacementPolicy policy;
+    private volatile int generation;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder collisions = new LongAdder();
+
+    public TranspositionTable(int sizeMb) {
+        this(sizeMb, ReplacementPolicy.AGE_AND_DEPTH);
+    }
+
+    public TranspositionTable(int sizeMb, ReplacementPolicy policy) {
+        if (sizeMb <= 0) {
+            throw new IllegalArgumentException("Размер таблицы должен быть положительным");
+        }
+        // Число записей - наибольшая степень двойки, помещающаяся в заданный объем
+        long entries = Long.highestOneBit((long) sizeMb * 1024 * 1024 / ENTRY_BYTES);
+        if (entries > (1 << 29)) {
+            entries = 1 << 29;
+        }
+        this.table = new long[(int) entries * 2];
+        this.mask = (int) entries - 1;
+        this.policy = policy;
+    }
+
+    /**
+     * Ищет запись по ключу. Возвращает упакованные данные или NO_ENTRY
+     */
+    public long probe(long key) {
+        int index = index(key);
+        long check = table[index];
+        long data = table[index + 1];
+
+        if (data == NO_ENTRY || (check ^ data) != key) {
+            misses.increment();
+            Metrics.increment(Counter.TT_MISSES);
+            if (data != NO_ENTRY) {
+                collisions.increment();
+            }
+            return NO_ENTRY;
+        }
+        hits.increment();
+        Metrics.increment(Counter.TT_HITS);
+        return data;
+    }
+
+    /**
+     * Сохраняет результат поиска позиции
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        int index = index(key);
+        long oldData = table[index + 1];
+
+        if (oldData != NO_ENTRY && !shouldReplace(key, table[index] ^ oldData, oldData, depth)) {
+            return;
+        }
+
+        // Сохраняем лучший ход прежней записи той же позиции, если новый не найден
+        if (move == 0 && oldData != NO_ENTRY && (table[index] ^ oldData) == key) {
+            move = move(oldData);
+        }
+
+        long data = pack(move, score, depth, bound, generation);
+        table[index] = key ^ data;
+        table[index + 1] = data;
+    }
+
+    private boolean shouldReplace(long key, long oldKey, long oldData, int depth) {
+        return switch (policy) {
+            case ALWAYS -> true;
+            case DEPTH_PREFERRED -> oldKey == key || depth >= depth(oldData);
+            case AGE_AND_DEPTH -> oldKey == key || generation(oldData) != generation || depth >= depth(oldData);
+        };
+    }
+
+    private int index(long key) {
+        return ((int) key & mask) << 1;
+    }
+
+    /**
+     * Начинает новый поиск: записи прошлых поисков становятся устаревшими
+     */
+    public void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    public void clear() {
+        Arrays.fill(table, 0L);
+        hits.reset();
+        misses.reset();
+        collisions.reset();
+    }
+
+    /**
+     * Доля заполненных записей текущего поиска в промилле (по первой тысяче записей)
+     */
+    public int hashfull() {
+        int sample = Math.min(1000, mask + 1);
+        int used = 0;
+        for (int i = 0; i < sample; i++) {
+            long data = table[(i << 1) + 1];
+            if (data != NO_ENTRY && generation(data) == generation) {
+                used++;
+            }
+        }
+        return used * 1000 / sample;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * Промахи, включая коллизии: пустой слот или запись другой позиции
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Промахи, при которых слот занят записью другой позиции (часть misses)
+     */
+    public long collisions() {
+        return collisions.sum();
+    }
+
+    // Упаковка данных: биты 0-15 ход, 16-31 оценка, 32-39 глубина, 40-41 тип оценки, 42-49 поколение
+
+    private static long pack(int move, int score, int depth, int bound, int generation) {
+        return VALID
+                | (move & 0xFFFFL)
+                | ((score & 0xFFFFL) << 16)
+                | ((long) (depth & 0xFF) << 32)
+                | ((long) (bound & 0x3) << 40)
+                | ((long) (generation & 0xFF) << 42);
+    }
+
+    public static int move(long data) {
+        return (int) (data & 0xFFFF);
+    }
+
+    public static int score(long data) {
+        return (short) (data >>> 16);
+    }
+
+    public static int depth(long data) {
+        return (int) ((data >>> 32) & 0xFF);
+    }
+
+    public static int bound(long data) {
+        return (int) ((data >>> 40) & 0x3);
+    }
+
+    private static int generation(long data) {
+        return (int) ((data >>> 42) & 0xFF);
+    }
+}
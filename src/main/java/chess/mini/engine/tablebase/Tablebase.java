@@ -0,0 +1,125 @@
+package chess.mini.engine.tablebase;
+
+import chess.mini.engine.core.Board;
+import chess.mini.engine.data.Color;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * База окончаний: набор таблиц DTM, в том числе отображенных в память с диска.
+ * Значение позиции - число, упорядоченное как оценка: MATE_VALUE - n при выигрыше
+ * стороны, которая ходит, за n полуходов, -MATE_VALUE + n при проигрыше за n полуходов,
+ * DRAW при ничьей и NOT_FOUND, если таблицы для материала нет.
+ * Чтение идет по абсолютным индексам, поэтому база потокобезопасна
+ */
+public class Tablebase {
+    public static final int MATE_VALUE = 1000;
+    public static final int DRAW = 0;
+    public static final int NOT_FOUND = Integer.MIN_VALUE;
+
+    static final String EXTENSION = ".dtm";
+
+    private final Map<Long, TablebaseTable> tables = new HashMap<>();
+    private final int maxPieces;
+
+    Tablebase(List<TablebaseTable> tables) {
+        int max = 0;
+        for (TablebaseTable table : tables) {
+            this.tables.put(table.materialKey, table);
+            max = Math.max(max, table.slots.length);
+        }
+        this.maxPieces = max;
+    }
+
+    /**
+     * Отображает в память все файлы таблиц каталога
+     */
+    public static Tablebase open(Path directory) throws IOException {
+        List<TablebaseTable> tables = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(path -> path.getFileName().toString().endsWith(EXTENSION)).toList()) {
+                String fileName = file.getFileName().toString();
+                String name = fileName.substring(0, fileName.length() - EXTENSION.length());
+                long size = 1L << (6 * TablebaseTable.parseSlots(name).length);
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    if (channel.size() != 2 * size) {
+                        throw new IOException("Неверный размер таблицы " + file);
+                    }
+                    tables.add(new TablebaseTable(name, new ByteBuffer[]{
+                            channel.map(FileChannel.MapMode.READ_ONLY, 0, size),
+                            channel.map(FileChannel.MapMode.READ_ONLY, size, size)}));
+                }
+            }
+        }
+        return new Tablebase(tables);
+    }
+
+    /**
+     * Наибольшее число фигур (с королями) среди таблиц базы
+     */
+    public int maxPieces() {
+        return maxPieces;
+    }
+
+    /**
+     * Имена таблиц базы, например KQvK
+     */
+    public Set<String> names() {
+        Set<String> names = new TreeSet<>();
+        for (TablebaseTable table : tables.values()) {
+            names.add(table.name);
+        }
+        return names;
+    }
+
+    /**
+     * Значение позиции доски для стороны, которая ходит. Таблицы не моделируют взятие на проходе
+     * и рокировку, поэтому позиции с такими правами не оцениваются (NOT_FOUND)
+     */
+    public int probe(Board board) {
+        if (board.getEnPassantSquare() >= 0 || board.getCastlingRights() != 0) {
+            return NOT_FOUND;
+        }
+        if (board.pieceCount(Color.WHITE) + board.pieceCount(Color.BLACK) > maxPieces) {
+            return NOT_FOUND;
+        }
+        TablebaseTable table = tables.get(TablebaseTable.materialKey(board));
+        if (table == null) {
+            return NOT_FOUND;
+        }
+
+        byte value = table.value(board.getSideToMove().ordinal(), table.index(board));
+        if (value == TablebaseTable.ILLEGAL) {
+            return NOT_FOUND;
+        }
+        if (value > 0) {
+            return MATE_VALUE - (2 * value - 1);
+        }
+        if (value < 0) {
+            return -MATE_VALUE + 2 * (-value - 1);
+        }
+        return DRAW;
+    }
+
+    /**
+     * Число полуходов до мата для значения probe (0 для ничьей)
+     */
+    public static int pliesToMate(int value) {
+        if (value == DRAW || value == NOT_FOUND) {
+            return 0;
+        }
+        return MATE_VALUE - Math.abs(value);
+    }
+}
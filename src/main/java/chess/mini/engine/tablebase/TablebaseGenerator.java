@@ -0,0 +1,371 @@
+package chess.mini.engine.tablebase;
+
+import chess.mini.engine.core.Bitboards;
+import chess.mini.engine.core.Board;
+import chess.mini.engine.core.CheckDetector;
+import chess.mini.engine.core.Move;
+import chess.mini.engine.core.MoveList;
+import chess.mini.engine.core.MoveValidator;
+import chess.mini.engine.data.Color;
+import chess.mini.engine.data.Piece;
+import chess.mini.engine.data.PieceType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Генератор таблиц эндшпиля с расстоянием до мата (DTM).
+ * Таблица решается итерациями по всему индексу: на шаге k позиция выигрывает за k ходов,
+ * если есть ход в проигрыш за k - 1, и проигрывает за k ходов, если все ходы ведут
+ * в выигрыш соперника не дальше k ходов. Взятия и превращения ведут в уже решенные подтаблицы.
+ * Каждый проход распараллеливается через fork/join по диапазонам индексов.
+ * Взятие на проходе и рокировка в таблицах не учитываются
+ */
+public class TablebaseGenerator {
+    public static final int MAX_PIECES = 5;
+
+    // Диапазон индексов, который обрабатывается одной задачей без деления
+    private static final int LEAF_SIZE = 1 << 13;
+    private static final PieceType[] PROMOTIONS = {PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP, PieceType.KNIGHT};
+
+    private enum Pass { INIT, WIN, LOSS }
+
+    private final ForkJoinPool pool;
+    private final Map<Long, TablebaseTable> tables = new LinkedHashMap<>();
+
+    public TablebaseGenerator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public TablebaseGenerator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Генерирует таблицы для заданных соотношений (например, "KQvK", "KPvK")
+     * вместе со всеми подтаблицами и возвращает базу по всем сгенерированным таблицам
+     */
+    public Tablebase generate(String... names) {
+        for (String name : names) {
+            generate(TablebaseTable.parseSlots(name));
+        }
+        return new Tablebase(new ArrayList<>(tables.values()));
+    }
+
+    /**
+     * Записывает все сгенерированные таблицы в каталог: файл имя.dtm на таблицу
+     */
+    public void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (TablebaseTable table : tables.values()) {
+            Path file = directory.resolve(table.name + Tablebase.EXTENSION);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                for (ByteBuffer side : table.sides) {
+                    ByteBuffer data = side.duplicate().clear();
+                    while (data.hasRemaining()) {
+                        channel.write(data);
+                    }
+                }
+            }
+        }
+    }
+
+    private TablebaseTable generate(int[] slots) {
+        long key = TablebaseTable.materialKey(slots);
+        TablebaseTable existing = tables.get(key);
+        if (existing != null) {
+            return existing;
+        }
+
+        List<TablebaseTable> children = new ArrayList<>();
+        int maxChildMoves = 0;
+        for (int[] child : childMaterials(slots)) {
+            TablebaseTable table = generate(child);
+            if (!children.contains(table)) {
+                children.add(table);
+                maxChildMoves = Math.max(maxChildMoves, maxMoves(table));
+            }
+        }
+
+        int size = 1 << (6 * slots.length);
+        TablebaseTable table = new TablebaseTable(TablebaseTable.name(slots),
+                new ByteBuffer[]{ByteBuffer.wrap(new byte[size]), ByteBuffer.wrap(new byte[size])});
+        byte[][] values = {table.sides[0].array(), table.sides[1].array()};
+
+        pool.invoke(new Solver(table, values, children, Pass.INIT, 0, 0, size));
+        // Итерации продолжаются, пока идут изменения или пока не пройдена глубина подтаблиц
+        for (int k = 1; ; k++) {
+            if (k >= Byte.MAX_VALUE) {
+                throw new IllegalStateException("Расстояние до мата превышает формат таблицы: " + table.name);
+            }
+            long changed = pool.invoke(new Solver(table, values, children, Pass.WIN, k, 0, size))
+                    + pool.invoke(new Solver(table, values, children, Pass.LOSS, k, 0, size));
+            if (changed == 0 && k > maxChildMoves + 1) {
+                break;
+            }
+        }
+
+        tables.put(key, table);
+        return table;
+    }
+
+    /**
+     * Соотношения материала после одного взятия и/или превращения
+     */
+    private static List<int[]> childMaterials(int[] slots) {
+        List<int[]> result = new ArrayList<>();
+        for (int captured = 0; captured < slots.length; captured++) {
+            if (Piece.fromIndex(slots[captured]).type() != PieceType.KING) {
+                result.add(replace(slots, captured, -1, -1));
+            }
+        }
+        for (int pawn = 0; pawn < slots.length; pawn++) {
+            Piece piece = Piece.fromIndex(slots[pawn]);
+            if (piece.type() != PieceType.PAWN) {
+                continue;
+            }
+            for (PieceType promotion : PROMOTIONS) {
+                int promoted = Piece.of(promotion, piece.color()).index();
+                result.add(replace(slots, -1, pawn, promoted));
+                for (int captured = 0; captured < slots.length; captured++) {
+                    Piece victim = Piece.fromIndex(slots[captured]);
+                    if (victim.color() != piece.color() && victim.type() != PieceType.KING) {
+                        result.add(replace(slots, captured, pawn, promoted));
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private static int[] replace(int[] slots, int removed, int changed, int newPiece) {
+        int[] result = new int[removed >= 0 ? slots.length - 1 : slots.length];
+        int count = 0;
+        for (int i = 0; i < slots.length; i++) {
+            if (i != removed) {
+                result[count++] = i == changed ? newPiece : slots[i];
+            }
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    private static int maxMoves(TablebaseTable table) {
+        int max = 0;
+        for (ByteBuffer side : table.sides) {
+            byte[] values = side.array();
+            for (byte value : values) {
+                if (value != TablebaseTable.ILLEGAL) {
+                    max = Math.max(max, value > 0 ? value : -value - 1);
+                }
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Один проход по диапазону индексов [from, to) обеих сторон; возвращает число изменений
+     * ForkJoinTask сериализуем формально; задача живет только внутри пула и не сериализуется
+     */
+    @SuppressWarnings("serial")
+    private static class Solver extends RecursiveTask<Long> {
+        private final TablebaseTable table;
+        private final byte[][] values;
+        private final List<TablebaseTable> children;
+        private final Pass pass;
+        private final int k;
+        private final int from;
+        private final int to;
+
+        // Рабочее состояние листовой задачи
+        private Board board;
+        private MoveList moves;
+        private int[] squares;
+        private int[] childPieces;
+        private int[] childSquares;
+        private boolean[] used;
+
+        Solver(TablebaseTable table, byte[][] values, List<TablebaseTable> children, Pass pass, int k, int from, int to) {
+            this.table = table;
+            this.values = values;
+            this.children = children;
+            this.pass = pass;
+            this.k = k;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from > LEAF_SIZE) {
+                int middle = (from + to) >>> 1;
+                Solver left = new Solver(table, values, children, pass, k, from, middle);
+                left.fork();
+                long right = new Solver(table, values, children, pass, k, middle, to).compute();
+                return left.join() + right;
+            }
+
+            int n = table.slots.length;
+            board = new Board();
+            moves = new MoveList();
+            squares = new int[n];
+            childPieces = new int[n];
+            childSquares = new int[n];
+            used = new boolean[n];
+
+            long changed = 0;
+            for (int index = from; index < to; index++) {
+                for (int side = 0; side < 2; side++) {
+                    byte value = values[side][index];
+                    if (pass != Pass.INIT && value != 0) {
+                        continue; // Уже решена или невозможна
+                    }
+                    if (!place(index, side)) {
+                        values[side][index] = TablebaseTable.ILLEGAL;
+                        continue;
+                    }
+                    byte result = switch (pass) {
+                        case INIT -> initial(side);
+                        case WIN -> win(index, side);
+                        case LOSS -> loss(index, side);
+                    };
+                    clear();
+                    if (result != 0) {
+                        values[side][index] = result;
+                        changed++;
+                    }
+                }
+            }
+            return changed;
+        }
+
+        /**
+         * Расставляет фигуры позиции; false, если позиция невозможна
+         */
+        private boolean place(int index, int side) {
+            int n = squares.length;
+            long occupied = 0L;
+            for (int i = 0; i < n; i++) {
+                squares[i] = (index >>> (6 * (n - 1 - i))) & 63;
+                long bit = Bitboards.bit(squares[i]);
+                int rank = Bitboards.rank(squares[i]);
+                if ((occupied & bit) != 0
+                        || (Piece.fromIndex(table.slots[i]).type() == PieceType.PAWN && (rank == 0 || rank == 7))) {
+                    return false;
+                }
+                occupied |= bit;
+            }
+            for (int i = 0; i < n; i++) {
+                board.setPiece(squares[i], Piece.fromIndex(table.slots[i]));
+            }
+            Color color = side == 0 ? Color.WHITE : Color.BLACK;
+            board.setSideToMove(color);
+            if (CheckDetector.inCheck(color.opposite(), board)) {
+                clear(); // Король стороны, которая не ходит, под боем
+                return false;
+            }
+            return true;
+        }
+
+        private void clear() {
+            for (int square : squares) {
+                board.setPiece(square, null);
+            }
+        }
+
+        private byte initial(int side) {
+            return CheckDetector.isCheckmate(side == 0 ? Color.WHITE : Color.BLACK, board) ? (byte) -1 : 0;
+        }
+
+        private byte win(int index, int side) {
+            moves.clear();
+            MoveValidator.getLegalMoves(board.getSideToMove(), board, moves);
+            for (int i = 0; i < moves.size(); i++) {
+                byte child = childValue(index, side, moves.get(i));
+                if (child < 0 && child != TablebaseTable.ILLEGAL && -child <= k) {
+                    return (byte) k;
+                }
+            }
+            return 0;
+        }
+
+        private byte loss(int index, int side) {
+            moves.clear();
+            MoveValidator.getLegalMoves(board.getSideToMove(), board, moves);
+            if (moves.isEmpty()) {
+                return 0; // Пат
+            }
+            for (int i = 0; i < moves.size(); i++) {
+                byte child = childValue(index, side, moves.get(i));
+                if (child <= 0 || child > k) {
+                    return 0;
+                }
+            }
+            return (byte) -(k + 1);
+        }
+
+        /**
+         * Значение позиции после хода с точки зрения соперника
+         */
+        private byte childValue(int index, int side, int move) {
+            int n = squares.length;
+            int moveFrom = Move.from(move);
+            int moveTo = Move.to(move);
+            int moved = slotAt(moveFrom);
+
+            if (!Move.isCapture(move) && !Move.isPromotion(move)) {
+                int shift = 6 * (n - 1 - moved);
+                return values[1 - side][index ^ ((moveFrom ^ moveTo) << shift)];
+            }
+
+            int capturedSquare = Move.isEnPassant(move) ? moveTo + (side == 0 ? -8 : 8) : moveTo;
+            int captured = Move.isCapture(move) ? slotAt(capturedSquare) : -1;
+            PieceType promotion = Move.promotionType(move);
+
+            int count = 0;
+            for (int i = 0; i < n; i++) {
+                if (i == captured) {
+                    continue;
+                }
+                int piece = table.slots[i];
+                if (i == moved && promotion != null) {
+                    piece = Piece.of(promotion, Piece.fromIndex(piece).color()).index();
+                }
+                childPieces[count] = piece;
+                childSquares[count++] = i == moved ? moveTo : squares[i];
+            }
+
+            long key = 0L;
+            for (int i = 0; i < count; i++) {
+                key += 1L << (3 * childPieces[i]);
+            }
+            for (TablebaseTable child : children) {
+                if (child.materialKey == key) {
+                    return child.value(1 - side, child.index(childPieces, childSquares, count, used));
+                }
+            }
+            throw new IllegalStateException("Нет подтаблицы для " + table.name);
+        }
+
+        private int slotAt(int square) {
+            for (int i = 0; i < squares.length; i++) {
+                if (squares[i] == square) {
+                    return i;
+                }
+            }
+            throw new IllegalStateException("Нет фигуры на клетке " + square);
+        }
+    }
+}
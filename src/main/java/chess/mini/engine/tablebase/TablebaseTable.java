@@ -0,0 +1,159 @@
+package chess.mini.engine.tablebase;
+
+import chess.mini.engine.core.Board;
+import chess.mini.engine.data.Color;
+import chess.mini.engine.data.Piece;
+import chess.mini.engine.data.PieceType;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Таблица одного соотношения материала, например KQvK.
+ * Индекс позиции - клетки фигур по 6 бит в порядке слотов: сначала белые, затем черные,
+ * внутри цвета - в порядке PieceType (король первым). Для каждой стороны, которая ходит,
+ * отдельная область из 64^n байт. Значение байта:
+ * 0 - ничья, m &gt; 0 - выигрыш за m ходов, -(m + 1) - проигрыш за m ходов, ILLEGAL - позиция невозможна
+ */
+class TablebaseTable {
+    static final byte ILLEGAL = Byte.MIN_VALUE;
+
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+    private static final String LETTERS = "KQRBNP";
+
+    final String name;
+    final long materialKey;
+    // Piece.index() фигуры в каждом слоте
+    final int[] slots;
+    final int size;
+    final ByteBuffer[] sides;
+
+    TablebaseTable(String name, ByteBuffer[] sides) {
+        this.name = name;
+        this.slots = parseSlots(name);
+        this.materialKey = materialKey(slots);
+        this.size = 1 << (6 * slots.length);
+        this.sides = sides;
+    }
+
+    byte value(int side, int index) {
+        return sides[side].get(index);
+    }
+
+    /**
+     * Индекс позиции по фигурам и клеткам в произвольном порядке; used - рабочий массив длины count
+     */
+    int index(int[] pieces, int[] squares, int count, boolean[] used) {
+        for (int i = 0; i < count; i++) {
+            used[i] = false;
+        }
+        int index = 0;
+        for (int slot : slots) {
+            for (int i = 0; i < count; i++) {
+                if (!used[i] && pieces[i] == slot) {
+                    used[i] = true;
+                    index = (index << 6) | squares[i];
+                    break;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Индекс позиции доски; одинаковые фигуры берутся по возрастанию клеток
+     */
+    int index(Board board) {
+        int index = 0;
+        long remaining = 0L;
+        int previous = -1;
+        for (int slot : slots) {
+            if (slot != previous) {
+                Piece piece = Piece.fromIndex(slot);
+                remaining = board.pieces(piece.type(), piece.color());
+                previous = slot;
+            }
+            index = (index << 6) | Long.numberOfTrailingZeros(remaining);
+            remaining &= remaining - 1;
+        }
+        return index;
+    }
+
+    /**
+     * Слоты по имени вида KQvKR: буквы до v - белые фигуры, после - черные
+     */
+    static int[] parseSlots(String name) {
+        int separator = name.indexOf('v');
+        if (separator < 0 || name.indexOf('v', separator + 1) >= 0) {
+            throw invalid(name);
+        }
+        int[] counts = new int[12];
+        for (int i = 0; i < name.length(); i++) {
+            if (i == separator) {
+                continue;
+            }
+            int type = LETTERS.indexOf(name.charAt(i));
+            if (type < 0) {
+                throw invalid(name);
+            }
+            Color color = i < separator ? Color.WHITE : Color.BLACK;
+            counts[Piece.of(PIECE_TYPES[type], color).index()]++;
+        }
+        if (counts[Piece.of(PieceType.KING, Color.WHITE).index()] != 1
+                || counts[Piece.of(PieceType.KING, Color.BLACK).index()] != 1) {
+            throw invalid(name);
+        }
+
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        if (total > TablebaseGenerator.MAX_PIECES) {
+            throw new IllegalArgumentException("Поддерживаются окончания до " + TablebaseGenerator.MAX_PIECES + " фигур: " + name);
+        }
+        int[] slots = new int[total];
+        int slot = 0;
+        for (int pieceIndex = 0; pieceIndex < 12; pieceIndex++) {
+            for (int i = 0; i < counts[pieceIndex]; i++) {
+                slots[slot++] = pieceIndex;
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Каноническое имя таблицы по слотам
+     */
+    static String name(int[] slots) {
+        StringBuilder white = new StringBuilder();
+        StringBuilder black = new StringBuilder();
+        for (int slot : slots) {
+            Piece piece = Piece.fromIndex(slot);
+            (piece.color() == Color.WHITE ? white : black).append(LETTERS.charAt(piece.type().ordinal()));
+        }
+        return white + "v" + black;
+    }
+
+    /**
+     * Ключ материала: по 3 бита на число фигур каждого Piece.index()
+     */
+    static long materialKey(int[] slots) {
+        long key = 0L;
+        for (int slot : slots) {
+            key += 1L << (3 * slot);
+        }
+        return key;
+    }
+
+    static long materialKey(Board board) {
+        long key = 0L;
+        for (int pieceIndex = 0; pieceIndex < 12; pieceIndex++) {
+            Piece piece = Piece.fromIndex(pieceIndex);
+            key += (long) board.pieceCount(piece.type(), piece.color()) << (3 * pieceIndex);
+        }
+        return key;
+    }
+
+    private static IllegalArgumentException invalid(String name) {
+        return new IllegalArgumentException("Некорректное соотношение материала: " + name);
+    }
+}
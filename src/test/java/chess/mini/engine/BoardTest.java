@@ -1,9 +1,14 @@
 package chess.mini.engine;
 
+import chess.mini.engine.core.AttackChecker;
 import chess.mini.engine.core.Board;
+import chess.mini.engine.core.CheckDetector;
+import chess.mini.engine.core.Move;
+import chess.mini.engine.core.MoveList;
 import chess.mini.engine.data.Color;
 import chess.mini.engine.data.Piece;
 import chess.mini.engine.data.PieceType;
+import chess.mini.engine.notation.Fen;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -62,4 +67,187 @@ public class BoardTest {
             }
         }
     }
+    
+    @Test
+    public void testBitboardsFollowSetPiece() {
+        Board board = Board.initial();
+        
+        // В начальной позиции по 16 фигур каждого цвета
+        assertEquals(16, Long.bitCount(board.pieces(Color.WHITE)));
+        assertEquals(16, Long.bitCount(board.pieces(Color.BLACK)));
+        assertEquals(0xFFFF00000000FFFFL, board.occupied());
+        assertEquals(1L << 4, board.pieces(PieceType.KING, Color.WHITE));
+        
+        // Перемещаем пешку e2-e4
+        Piece pawn = board.getPiece(1, 4);
+        board.setPiece(1, 4, null);
+        board.setPiece(3, 4, pawn);
+        assertEquals(0L, board.occupied() & (1L << 12));
+        assertNotEquals(0L, board.pieces(PieceType.PAWN, Color.WHITE) & (1L << 28));
+        
+        // Взятие заменяет фигуру в битбордах
+        board.setPiece(3, 4, new Piece(PieceType.KNIGHT, Color.BLACK));
+        assertEquals(0L, board.pieces(PieceType.PAWN, Color.WHITE) & (1L << 28));
+        assertNotEquals(0L, board.pieces(Color.BLACK) & (1L << 28));
+        assertEquals(15, Long.bitCount(board.pieces(Color.WHITE)));
+    }
+    
+    @Test
+    public void testHashIsIncremental() {
+        Board board = Board.initial();
+        long initialHash = board.hash();
+        
+        // Перемещение фигуры туда и обратно возвращает исходный хеш
+        Piece knight = board.getPiece(0, 6);
+        board.setPiece(0, 6, null);
+        board.setPiece(2, 5, knight);
+        assertNotEquals(initialHash, board.hash());
+        board.setPiece(2, 5, null);
+        board.setPiece(0, 6, knight);
+        assertEquals(initialHash, board.hash());
+        
+        // Сторона, которая должна ходить, входит в хеш
+        board.setSideToMove(Color.BLACK);
+        assertNotEquals(initialHash, board.hash());
+        board.setSideToMove(Color.WHITE);
+        assertEquals(initialHash, board.hash());
+        
+        // Одинаковая расстановка дает одинаковый хеш независимо от порядка установки
+        Board other = new Board();
+        for (int rank = 7; rank >= 0; rank--) {
+            for (int file = 7; file >= 0; file--) {
+                other.setPiece(rank, file, board.getPiece(rank, file));
+            }
+        }
+        assertNotEquals(board.hash(), other.hash()); // Права на рокировку входят в хеш
+        other.setCastlingRights(board.getCastlingRights());
+        assertEquals(board.hash(), other.hash());
+    }
+    
+    @Test
+    public void testPieceListsAndMaterial() {
+        Board board = Board.initial();
+        assertEquals(16, board.pieceCount(Color.WHITE));
+        assertEquals(8, board.pieceCount(PieceType.PAWN, Color.BLACK));
+        assertEquals(4, board.kingSquare(Color.WHITE));
+        assertEquals(60, board.kingSquare(Color.BLACK));
+        assertEquals(4000, board.material(Color.WHITE));
+        
+        // Взятие уменьшает счетчики противника, ход короля обновляет его клетку
+        board.setPiece(6, 3, new Piece(PieceType.QUEEN, Color.WHITE));
+        assertEquals(15, board.pieceCount(Color.BLACK));
+        assertEquals(3900, board.material(Color.BLACK));
+        assertEquals(4900, board.material(Color.WHITE));
+        board.setPiece(7, 4, null);
+        board.setPiece(6, 4, new Piece(PieceType.KING, Color.BLACK));
+        assertEquals(52, board.kingSquare(Color.BLACK));
+        
+        // Список фигур совпадает с битбордом цвета
+        long fromList = 0L;
+        for (int i = 0; i < board.pieceCount(Color.BLACK); i++) {
+            fromList |= 1L << board.pieceSquare(Color.BLACK, i);
+        }
+        assertEquals(board.pieces(Color.BLACK), fromList);
+    }
+
+    @Test
+    public void testCacheInvalidatedBySetPiece() {
+        Board board = Fen.parse("4k3/8/8/8/8/8/8/4K3 w - - 0 1");
+        assertFalse(CheckDetector.inCheck(Color.BLACK, board));
+        long attacks = board.attacksBy(Color.WHITE);
+
+        // Ладья на e4 объявляет шах черному королю
+        board.setPiece(3, 4, new Piece(PieceType.ROOK, Color.WHITE));
+        assertNotEquals(attacks, board.attacksBy(Color.WHITE));
+        assertEquals(AttackChecker.attackMap(Color.WHITE, board), board.attacksBy(Color.WHITE));
+        assertTrue(CheckDetector.inCheck(Color.BLACK, board));
+        assertEquals(1L << 28, board.checkers(Color.BLACK));
+
+        board.setPiece(3, 4, null);
+        assertEquals(attacks, board.attacksBy(Color.WHITE));
+        assertEquals(0L, board.checkers(Color.BLACK));
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testCells() {
+        Board board = Fen.parse(Fen.INITIAL);
+        Piece[][] copy = board.copyCells();
+        assertEquals(new Piece(PieceType.KING, Color.WHITE), copy[0][4]);
+        copy[0][4] = null;
+        assertEquals(new Piece(PieceType.KING, Color.WHITE), board.getPiece(0, 4));
+
+        // Устаревший getCells по-прежнему отдает сам массив доски
+        board.setPiece(3, 4, new Piece(PieceType.PAWN, Color.WHITE));
+        assertSame(board.getCells(), board.getCells());
+        assertEquals(new Piece(PieceType.PAWN, Color.WHITE), board.getCells()[3][4]);
+    }
+
+    @Test
+    public void testInvalidateCachesKeepsPosition() {
+        Board board = Fen.parse("8/8/8/8/1pP5/1P3N2/5K2/7k b - c3 0 1");
+        long hash = board.hash();
+        long attacks = board.attacksBy(Color.WHITE);
+        assertFalse(CheckDetector.isStalemate(Color.BLACK, board));
+
+        board.invalidateCaches();
+        assertEquals(hash, board.hash());
+        assertEquals(18, board.getEnPassantSquare());
+        assertEquals(attacks, board.attacksBy(Color.WHITE));
+        assertFalse(CheckDetector.isStalemate(Color.BLACK, board));
+    }
+
+    @Test
+    public void testCacheInvalidatedByEnPassant() {
+        // Единственный ход черных - взятие на проходе; без него пат
+        Board board = Fen.parse("8/8/8/8/1pP5/1P3N2/5K2/7k b - c3 0 1");
+        assertFalse(CheckDetector.isStalemate(Color.BLACK, board));
+        board.setEnPassantSquare(-1);
+        assertTrue(CheckDetector.isStalemate(Color.BLACK, board));
+        board.setEnPassantSquare(18);
+        assertFalse(CheckDetector.isStalemate(Color.BLACK, board));
+    }
+
+    @Test
+    public void testCacheInvalidatedByCastlingRights() {
+        ChessEngine engine = ChessEngine.fromFen("4k3/8/8/8/8/8/8/4K2R w - - 0 1");
+        Board board = engine.getBoard();
+        assertFalse(CheckDetector.isStalemate(Color.WHITE, board));
+        assertFalse(containsCastle(engine));
+
+        board.setCastlingRights(Board.WHITE_KINGSIDE);
+        assertTrue(containsCastle(engine));
+        assertEquals(AttackChecker.attackMap(Color.WHITE, board), board.attacksBy(Color.WHITE));
+        board.setCastlingRights(0);
+        assertFalse(containsCastle(engine));
+    }
+
+    private static boolean containsCastle(ChessEngine engine) {
+        MoveList moves = new MoveList();
+        engine.getLegalMoves(moves);
+        for (int i = 0; i < moves.size(); i++) {
+            if (Move.flags(moves.get(i)) == Move.KING_CASTLE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Test
+    public void testCacheInvalidatedByUnmake() {
+        ChessEngine engine = ChessEngine.fromFen("4k3/8/8/8/8/8/8/R3K3 w - - 0 1");
+        Board board = engine.getBoard();
+        long attacks = board.attacksBy(Color.WHITE);
+        assertFalse(CheckDetector.inCheck(Color.BLACK, board));
+
+        engine.makeMove(Move.encode(0, 56, Move.QUIET)); // Ra8+
+        assertTrue(CheckDetector.inCheck(Color.BLACK, board));
+        assertFalse(CheckDetector.isCheckmate(Color.BLACK, board));
+
+        engine.unmakeMove();
+        assertFalse(CheckDetector.inCheck(Color.BLACK, board));
+        assertEquals(0L, board.checkers(Color.BLACK));
+        assertEquals(attacks, board.attacksBy(Color.WHITE));
+        assertEquals(AttackChecker.attackMap(Color.WHITE, board), board.attacksBy(Color.WHITE));
+    }
 }
@@ -0,0 +1,249 @@
+package chess.mini.engine;
+
+import chess.mini.engine.core.Board;
+import chess.mini.engine.core.Move;
+import chess.mini.engine.core.MoveList;
+import chess.mini.engine.data.Color;
+import chess.mini.engine.data.Piece;
+import chess.mini.engine.data.PieceType;
+import chess.mini.engine.data.Square;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChessEngineTest {
+
+    private static void play(ChessEngine engine, String... moves) {
+        for (String move : moves) {
+            engine.makeMove(square(move.substring(0, 2)), square(move.substring(2, 4)));
+        }
+    }
+
+    private static Square square(String name) {
+        return new Square(name.charAt(0) - 'a', name.charAt(1) - '1');
+    }
+
+    @Test
+    public void testCastling() {
+        ChessEngine engine = new ChessEngine();
+        play(engine, "e2e4", "e7e5", "g1f3", "b8c6", "f1c4", "g8f6");
+        long hash = engine.hash();
+
+        assertTrue(engine.getLegalMoves(square("e1")).contains(square("g1")));
+        play(engine, "e1g1");
+        Board board = engine.getBoard();
+        assertEquals(new Piece(PieceType.KING, Color.WHITE), board.getPiece(0, 6));
+        assertEquals(new Piece(PieceType.ROOK, Color.WHITE), board.getPiece(0, 5));
+        assertNull(board.getPiece(0, 7));
+        assertEquals(Board.BLACK_KINGSIDE | Board.BLACK_QUEENSIDE, board.getCastlingRights());
+
+        engine.unmakeMove();
+        assertEquals(new Piece(PieceType.ROOK, Color.WHITE), board.getPiece(0, 7));
+        assertEquals(Board.ALL_CASTLING, board.getCastlingRights());
+        assertEquals(hash, engine.hash());
+    }
+
+    @Test
+    public void testCastlingThroughAttackedSquare() {
+        Board board = new Board();
+        board.setPiece(0, 4, new Piece(PieceType.KING, Color.WHITE));
+        board.setPiece(0, 7, new Piece(PieceType.ROOK, Color.WHITE));
+        board.setPiece(0, 0, new Piece(PieceType.ROOK, Color.WHITE));
+        board.setPiece(7, 4, new Piece(PieceType.KING, Color.BLACK));
+        board.setPiece(7, 5, new Piece(PieceType.ROOK, Color.BLACK));
+        board.setCastlingRights(Board.WHITE_KINGSIDE | Board.WHITE_QUEENSIDE);
+        ChessEngine engine = new ChessEngine(board, Color.WHITE);
+
+        // Поле f1 под боем: короткая рокировка запрещена, длинная разрешена
+        assertFalse(engine.getLegalMoves(square("e1")).contains(square("g1")));
+        assertTrue(engine.getLegalMoves(square("e1")).contains(square("c1")));
+    }
+
+    @Test
+    public void testEnPassant() {
+        ChessEngine engine = new ChessEngine();
+        play(engine, "e2e4", "a7a6", "e4e5", "d7d5");
+        assertEquals(43, engine.getBoard().getEnPassantSquare());
+        long hash = engine.hash();
+
+        play(engine, "e5d6");
+        assertNull(engine.getBoard().getPiece(4, 3));
+        assertEquals(new Piece(PieceType.PAWN, Color.WHITE), engine.getBoard().getPiece(5, 3));
+        assertEquals(-1, engine.getBoard().getEnPassantSquare());
+
+        engine.unmakeMove();
+        assertEquals(new Piece(PieceType.PAWN, Color.BLACK), engine.getBoard().getPiece(4, 3));
+        assertEquals(43, engine.getBoard().getEnPassantSquare());
+        assertEquals(hash, engine.hash());
+    }
+
+    @Test
+    public void testEnPassantOnlyWhenCapturable() {
+        // 1. e4 e5 2. Nf3 и 1. Nf3 e5 2. e4 - одна позиция: после e4 взять на проходе нечем
+        ChessEngine first = new ChessEngine();
+        play(first, "e2e4", "e7e5", "g1f3");
+        ChessEngine second = new ChessEngine();
+        play(second, "g1f3", "e7e5", "e2e4");
+        assertEquals(-1, second.getBoard().getEnPassantSquare());
+        assertEquals(first.hash(), second.hash());
+        // Совпадают все поля FEN, кроме счетчика полуходов
+        assertEquals(first.toFen().substring(0, first.toFen().lastIndexOf(" 1 2")),
+                second.toFen().substring(0, second.toFen().lastIndexOf(" 0 2")));
+
+        // Пешка соперника рядом - клетка сохраняется и входит в хеш
+        ChessEngine capturable = ChessEngine.fromFen("4k3/8/8/8/3p4/8/4P3/4K3 w - - 0 1");
+        play(capturable, "e2e4");
+        assertEquals(20, capturable.getBoard().getEnPassantSquare());
+        assertNotEquals(ChessEngine.fromFen("4k3/8/8/8/3pP3/8/8/4K3 b - - 0 1").hash(), capturable.hash());
+        assertEquals(ChessEngine.fromFen("4k3/8/8/8/3pP3/8/8/4K3 b - e3 0 1").hash(), capturable.hash());
+    }
+
+    @Test
+    public void testMakeUnmakeRoundTrip() {
+        String[] fens = {
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+                "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+        };
+        boolean[] seen = new boolean[16];
+        for (String fen : fens) {
+            ChessEngine engine = ChessEngine.fromFen(fen);
+            checkRoundTrip(engine, 2, seen);
+            assertEquals(fen, engine.toFen());
+        }
+        // Обход должен затронуть все виды ходов
+        for (int flags : new int[]{Move.QUIET, Move.DOUBLE_PAWN_PUSH, Move.KING_CASTLE, Move.QUEEN_CASTLE,
+                Move.CAPTURE, Move.EN_PASSANT}) {
+            assertTrue(seen[flags], "не встретился ход с флагами " + flags);
+        }
+        for (int flags = Move.KNIGHT_PROMOTION; flags <= Move.QUEEN_PROMOTION; flags++) {
+            assertTrue(seen[flags], "не встретилось превращение " + flags);
+            assertTrue(seen[flags | Move.CAPTURE], "не встретилось превращение со взятием " + flags);
+        }
+    }
+
+    private static void checkRoundTrip(ChessEngine engine, int depth, boolean[] seen) {
+        MoveList moves = new MoveList();
+        engine.getLegalMoves(moves);
+        String fen = engine.toFen();
+        long hash = engine.hash();
+        int ply = engine.getPly();
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            seen[Move.flags(move)] = true;
+            engine.makeMove(move);
+            // Инкрементальный хеш совпадает с вычисленным заново
+            assertEquals(ChessEngine.fromFen(engine.toFen()).hash(), engine.hash(), Move.toString(move));
+            if (depth > 1) {
+                checkRoundTrip(engine, depth - 1, seen);
+            }
+            engine.unmakeMove();
+            assertEquals(fen, engine.toFen(), Move.toString(move));
+            assertEquals(hash, engine.hash(), Move.toString(move));
+            assertEquals(ply, engine.getPly());
+        }
+    }
+
+    @Test
+    public void testPromotion() {
+        Board board = new Board();
+        board.setPiece(0, 4, new Piece(PieceType.KING, Color.WHITE));
+        board.setPiece(6, 0, new Piece(PieceType.PAWN, Color.WHITE));
+        board.setPiece(7, 1, new Piece(PieceType.ROOK, Color.BLACK));
+        board.setPiece(5, 7, new Piece(PieceType.KING, Color.BLACK));
+        ChessEngine engine = new ChessEngine(board, Color.WHITE);
+        long hash = engine.hash();
+
+        engine.makeMove(square("a7"), square("b8"), PieceType.KNIGHT);
+        assertEquals(new Piece(PieceType.KNIGHT, Color.WHITE), board.getPiece(7, 1));
+        assertEquals(0, board.pieceCount(PieceType.PAWN, Color.WHITE));
+
+        engine.unmakeMove();
+        assertEquals(new Piece(PieceType.PAWN, Color.WHITE), board.getPiece(6, 0));
+        assertEquals(new Piece(PieceType.ROOK, Color.BLACK), board.getPiece(7, 1));
+        assertEquals(hash, engine.hash());
+
+        // Без указания фигуры пешка превращается в ферзя
+        engine.makeMove(square("a7"), square("a8"));
+        assertEquals(new Piece(PieceType.QUEEN, Color.WHITE), board.getPiece(7, 0));
+    }
+
+    @Test
+    public void testThreefoldRepetition() {
+        ChessEngine engine = new ChessEngine();
+        assertFalse(engine.isRepetition());
+
+        play(engine, "g1f3", "g8f6", "f3g1", "f6g8");
+        assertEquals(1, engine.repetitionCount());
+        assertTrue(engine.isRepetition());
+        assertFalse(engine.isThreefoldRepetition());
+        assertFalse(engine.isDraw());
+
+        play(engine, "g1f3", "g8f6", "f3g1", "f6g8");
+        assertEquals(2, engine.repetitionCount());
+        assertTrue(engine.isThreefoldRepetition());
+        assertTrue(engine.isDraw());
+
+        engine.unmakeMove();
+        assertFalse(engine.isThreefoldRepetition());
+        // Ход пешкой делает прежние позиции неповторимыми
+        play(engine, "e7e5");
+        assertEquals(0, engine.repetitionCount());
+    }
+
+    @Test
+    public void testCopyKeepsRepetitionHistory() {
+        ChessEngine engine = new ChessEngine();
+        play(engine, "e2e4", "e7e5", "g1f3", "g8f6", "f3g1", "f6g8", "g1f3");
+        ChessEngine copy = engine.copy();
+        assertEquals(engine.hash(), copy.hash());
+        assertEquals(engine.getBoard().getHalfmoveClock(), copy.getPly());
+
+        // Повтор в копии распознается по истории, сделанной до копирования
+        play(engine, "g8f6");
+        play(copy, "g8f6");
+        assertEquals(1, engine.repetitionCount());
+        assertEquals(engine.repetitionCount(), copy.repetitionCount());
+        play(engine, "f3g1", "f6g8", "g1f3", "g8f6");
+        play(copy, "f3g1", "f6g8", "g1f3", "g8f6");
+        assertEquals(2, copy.repetitionCount());
+        assertEquals(engine.repetitionCount(), copy.repetitionCount());
+
+        // Историю копии можно отменить до последнего хода пешки
+        while (copy.getPly() > 0) {
+            copy.unmakeMove();
+        }
+        assertEquals(ChessEngine.fromFen("rnbqkbnr/pppp1ppp/8/4p3/4P3/8/PPPP1PPP/RNBQKBNR w KQkq e6 0 2").hash(), copy.hash());
+    }
+
+    @Test
+    public void testFiftyMoveRule() {
+        ChessEngine engine = ChessEngine.fromFen("4k3/8/8/8/8/8/8/R3K3 w - - 99 80");
+        assertFalse(engine.isFiftyMoveRule());
+        play(engine, "a1a2");
+        assertEquals(100, engine.getBoard().getHalfmoveClock());
+        assertTrue(engine.isFiftyMoveRule());
+        assertTrue(engine.isDraw());
+
+        engine.unmakeMove();
+        assertFalse(engine.isDraw());
+
+        // Мат последним ходом важнее правила 50 ходов
+        ChessEngine mate = ChessEngine.fromFen("k7/8/1K6/8/8/8/8/7R w - - 99 80");
+        play(mate, "h1h8");
+        assertTrue(mate.isCheckmate());
+        assertFalse(mate.isFiftyMoveRule());
+        assertFalse(mate.isDraw());
+    }
+
+    @Test
+    public void testInsufficientMaterial() {
+        assertTrue(ChessEngine.fromFen("4k3/8/8/8/8/8/8/4K3 w - - 0 1").isInsufficientMaterial());
+        assertTrue(ChessEngine.fromFen("4k3/8/8/8/8/8/8/4KN2 w - - 0 1").isInsufficientMaterial());
+        assertTrue(ChessEngine.fromFen("4kb2/8/8/8/8/8/8/2B1K3 w - - 0 1").isInsufficientMaterial());
+        assertFalse(ChessEngine.fromFen("4k1b1/8/8/8/8/8/8/2B1K3 w - - 0 1").isInsufficientMaterial());
+        assertFalse(ChessEngine.fromFen("4k3/8/8/8/8/8/8/3NKN2 w - - 0 1").isInsufficientMaterial());
+        assertFalse(ChessEngine.fromFen("4k3/8/8/8/8/8/4P3/4K3 w - - 0 1").isInsufficientMaterial());
+        assertFalse(new ChessEngine().isDraw());
+    }
+}
@@ -0,0 +1,100 @@
+package chess.mini.engine;
+
+import chess.mini.engine.core.Move;
+import chess.mini.engine.core.MoveList;
+import chess.mini.engine.data.PieceType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoveTest {
+
+    @Test
+    public void testPackingRoundTrip() {
+        for (int from = 0; from < 64; from++) {
+            for (int to = 0; to < 64; to++) {
+                for (int flags = 0; flags < 16; flags++) {
+                    int move = Move.encode(from, to, flags);
+                    assertEquals(from, Move.from(move));
+                    assertEquals(to, Move.to(move));
+                    assertEquals(flags, Move.flags(move));
+                    assertEquals(0, move >>> 16); // Ход умещается в 16 бит
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFlags() {
+        int quiet = Move.encode(12, 28, Move.DOUBLE_PAWN_PUSH); // e2e4
+        assertFalse(Move.isCapture(quiet));
+        assertFalse(Move.isPromotion(quiet));
+        assertNull(Move.promotionType(quiet));
+        assertEquals("e2e4", Move.toString(quiet));
+
+        int enPassant = Move.encode(36, 43, Move.EN_PASSANT);
+        assertTrue(Move.isCapture(enPassant));
+        assertTrue(Move.isEnPassant(enPassant));
+        assertFalse(Move.isEnPassant(Move.encode(36, 43, Move.CAPTURE)));
+
+        assertTrue(Move.isCastling(Move.encode(4, 6, Move.KING_CASTLE)));
+        assertTrue(Move.isCastling(Move.encode(4, 2, Move.QUEEN_CASTLE)));
+        assertFalse(Move.isCastling(Move.encode(4, 5, Move.QUIET)));
+        assertFalse(Move.isCapture(Move.encode(4, 6, Move.KING_CASTLE)));
+    }
+
+    @Test
+    public void testPromotions() {
+        PieceType[] types = {PieceType.KNIGHT, PieceType.BISHOP, PieceType.ROOK, PieceType.QUEEN};
+        String letters = "nbrq";
+        for (int i = 0; i < types.length; i++) {
+            int flag = Move.promotionFlag(types[i]);
+            int push = Move.encode(52, 60, flag);
+            int capture = Move.encode(52, 59, flag | Move.CAPTURE);
+
+            assertTrue(Move.isPromotion(push));
+            assertFalse(Move.isCapture(push));
+            assertEquals(types[i], Move.promotionType(push));
+            assertEquals("e7e8" + letters.charAt(i), Move.toString(push));
+
+            assertTrue(Move.isPromotion(capture));
+            assertTrue(Move.isCapture(capture));
+            assertFalse(Move.isEnPassant(capture));
+            assertEquals(types[i], Move.promotionType(capture));
+        }
+        assertThrows(IllegalArgumentException.class, () -> Move.promotionFlag(PieceType.KING));
+        assertThrows(IllegalArgumentException.class, () -> Move.promotionFlag(PieceType.PAWN));
+    }
+
+    @Test
+    public void testMoveList() {
+        MoveList moves = new MoveList();
+        assertTrue(moves.isEmpty());
+        int first = Move.encode(12, 28, Move.DOUBLE_PAWN_PUSH);
+        int second = Move.encode(6, 21, Move.QUIET);
+        int third = Move.encode(1, 18, Move.QUIET);
+        moves.add(first);
+        moves.add(second);
+        moves.add(third);
+        assertEquals(3, moves.size());
+        assertEquals(second, moves.get(1));
+        assertTrue(moves.contains(third));
+
+        moves.truncate(1);
+        assertEquals(1, moves.size());
+        assertTrue(moves.contains(first));
+        assertFalse(moves.contains(second)); // Отброшенные ходы больше не видны, хоть и остались в массиве
+        assertFalse(moves.contains(third));
+
+        moves.set(0, third);
+        assertEquals(third, moves.array()[0]);
+        moves.add(second);
+        assertEquals(second, moves.get(1));
+
+        moves.clear();
+        assertTrue(moves.isEmpty());
+        assertFalse(moves.contains(third));
+        assertEquals(MoveList.MAX_MOVES, moves.array().length);
+        assertEquals(4, new MoveList(4).array().length);
+    }
+}
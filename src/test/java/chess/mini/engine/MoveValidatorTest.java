@@ -0,0 +1,104 @@
+package chess.mini.engine;
+
+import chess.mini.engine.core.Board;
+import chess.mini.engine.core.Move;
+import chess.mini.engine.core.MoveList;
+import chess.mini.engine.core.MoveValidator;
+import chess.mini.engine.data.Color;
+import chess.mini.engine.data.Piece;
+import chess.mini.engine.data.PieceType;
+import chess.mini.engine.data.Square;
+import chess.mini.engine.notation.Fen;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoveValidatorTest {
+
+    private static Set<String> moves(Board board) {
+        MoveList moves = new MoveList();
+        MoveValidator.getLegalMoves(board.getSideToMove(), board, moves);
+        return toStrings(moves);
+    }
+
+    private static Set<String> moves(Board board, String from) {
+        MoveList moves = new MoveList();
+        MoveValidator.getLegalMoves(square(from), board.getSideToMove(), board, moves);
+        return toStrings(moves);
+    }
+
+    private static Set<String> toStrings(MoveList moves) {
+        Set<String> result = new TreeSet<>();
+        for (int i = 0; i < moves.size(); i++) {
+            result.add(Move.toString(moves.get(i)));
+        }
+        return result;
+    }
+
+    private static int square(String name) {
+        return (name.charAt(1) - '1') * 8 + (name.charAt(0) - 'a');
+    }
+
+    @Test
+    public void testPinnedPieces() {
+        // Ладья e2 связана по вертикали, слон d2 - по диагонали: ходят только вдоль линии связки
+        Board board = Fen.parse("k3r3/8/8/8/1b6/8/3BR3/4K3 w - - 0 1");
+        assertEquals(Set.of("e2e3", "e2e4", "e2e5", "e2e6", "e2e7", "e2e8"), moves(board, "e2"));
+        assertEquals(Set.of("d2c3", "d2b4"), moves(board, "d2"));
+
+        // Связанный конь не ходит вовсе
+        Board pinnedKnight = Fen.parse("k7/8/8/8/8/8/8/K1N4r w - - 0 1");
+        assertTrue(moves(pinnedKnight, "c1").isEmpty());
+    }
+
+    @Test
+    public void testCheckEvasions() {
+        // Шах ладьей e8: закрыться слоном или конем, взять нельзя, либо уйти королем
+        Board board = Fen.parse("k3r3/8/8/8/8/2B5/6N1/4K3 w - - 0 1");
+        assertEquals(Set.of("c3e5", "g2e3", "e1d1", "e1d2", "e1f1", "e1f2"), moves(board));
+    }
+
+    @Test
+    public void testDoubleCheck() {
+        // Ладья e1 и слон b5 шахуют одновременно: ферзь не может ни закрыть, ни взять
+        Board board = Fen.parse("3qk3/8/8/1B6/8/8/8/4R1K1 b - - 0 1");
+        Set<String> moves = moves(board);
+        assertFalse(moves.isEmpty());
+        for (String move : moves) {
+            assertTrue(move.startsWith("e8"), move);
+        }
+        // e7 по-прежнему бьет ладья e1: король не закрывает линию атаки собой
+        assertEquals(Set.of("e8f7", "e8f8"), moves);
+    }
+
+    @Test
+    public void testEnPassantHorizontalPin() {
+        // После bxc6 обе пешки уходят с пятой горизонтали и ладья h5 бьет короля a5
+        Board pinned = Fen.parse("7k/8/8/KPp4r/8/8/8/8 w - c6 0 1");
+        assertEquals(Set.of("b5b6"), moves(pinned, "b5"));
+
+        Board free = Fen.parse("7k/8/8/KPp5/8/8/8/7r w - c6 0 1");
+        assertEquals(Set.of("b5b6", "b5c6"), moves(free, "b5"));
+    }
+
+    @Test
+    public void testEnPassantEvadesCheck() {
+        // Пешка d5 после d7-d5 шахует королю e4; ее можно снять взятием на проходе
+        Board board = Fen.parse("7k/8/8/3pP3/4K3/8/8/8 w - d6 0 1");
+        assertTrue(moves(board).contains("e5d6"));
+    }
+
+    @Test
+    public void testSquareApiRequiresPieceOnSquare() {
+        Board board = Board.initial();
+        Piece knight = new Piece(PieceType.KNIGHT, Color.WHITE);
+        assertEquals(2, MoveValidator.getLegalMoves(Square.of(square("g1")), knight, Color.WHITE, board).size());
+        // Фигура не совпадает с фигурой на клетке или ходит не та сторона - ходов нет
+        assertTrue(MoveValidator.getLegalMoves(Square.of(square("e2")), knight, Color.WHITE, board).isEmpty());
+        assertTrue(MoveValidator.getLegalMoves(Square.of(square("g1")), knight, Color.BLACK, board).isEmpty());
+        assertTrue(MoveValidator.getLegalMoves(Square.of(square("e4")), null, Color.WHITE, board).isEmpty());
+    }
+}
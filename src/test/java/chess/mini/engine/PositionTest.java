@@ -0,0 +1,81 @@
+package chess.mini.engine;
+
+import chess.mini.engine.core.Board;
+import chess.mini.engine.core.MoveList;
+import chess.mini.engine.data.Color;
+import chess.mini.engine.data.Piece;
+import chess.mini.engine.data.PieceType;
+import chess.mini.engine.data.Position;
+import chess.mini.engine.notation.Fen;
+import chess.mini.engine.notation.San;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PositionTest {
+
+    @Test
+    public void testSnapshotMatchesBoard() {
+        Board board = Fen.parse("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 3 17");
+        Position position = board.toPosition();
+
+        for (int square = 0; square < 64; square++) {
+            assertEquals(board.getPiece(square), position.pieceAt(square));
+        }
+        assertEquals(board.occupied(), position.occupied());
+        assertEquals(board.pieces(Color.BLACK), position.pieces(Color.BLACK));
+        assertEquals(board.pieces(PieceType.PAWN, Color.WHITE), position.pieces(PieceType.PAWN, Color.WHITE));
+        assertEquals(Color.WHITE, position.sideToMove());
+        assertEquals(Board.ALL_CASTLING, position.castlingRights());
+        assertEquals(-1, position.enPassantSquare());
+        assertEquals(3, position.halfmoveClock());
+        assertEquals(17, position.fullmoveNumber());
+        assertEquals(board.hash(), position.hash());
+
+        Board restored = Board.of(position);
+        assertEquals(Fen.toFen(board), Fen.toFen(restored));
+        assertEquals(board.hash(), restored.hash());
+    }
+
+    @Test
+    public void testSnapshotIsIndependentOfEngine() {
+        ChessEngine engine = ChessEngine.fromFen("4k3/8/8/8/3p4/8/4P3/4K3 w - - 0 1");
+        Position before = engine.getPosition();
+        engine.makeMove(San.parse("e4", engine.getBoard()));
+
+        assertEquals(Piece.of(PieceType.PAWN, Color.WHITE), before.pieceAt(12));
+        assertNull(before.pieceAt(28));
+        assertEquals(20, engine.getPosition().enPassantSquare());
+        assertEquals(Color.BLACK, engine.getPosition().sideToMove());
+
+        engine.unmakeMove();
+        assertEquals(before, engine.getPosition());
+        assertEquals(Fen.toFen(engine.getBoard()), ChessEngine.fromPosition(before).toFen());
+    }
+
+    @Test
+    public void testMapKey() {
+        Map<Position, Integer> seen = new HashMap<>();
+        Random random = new Random(5);
+        ChessEngine engine = new ChessEngine();
+        MoveList moves = new MoveList();
+        for (int ply = 0; ply < 200; ply++) {
+            seen.merge(engine.getPosition(), 1, Integer::sum);
+            moves.clear();
+            engine.getLegalMoves(moves);
+            if (moves.isEmpty()) {
+                break;
+            }
+            engine.makeMove(moves.get(random.nextInt(moves.size())));
+        }
+        while (engine.getPly() > 0) {
+            engine.unmakeMove();
+            assertTrue(seen.containsKey(engine.getPosition()));
+        }
+        assertEquals(new ChessEngine().getPosition(), engine.getPosition());
+    }
+}
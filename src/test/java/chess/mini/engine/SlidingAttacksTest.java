@@ -0,0 +1,73 @@
+package chess.mini.engine;
+
+import chess.mini.engine.core.Bitboards;
+import org.junit.jupiter.api.Test;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SlidingAttacksTest {
+
+    private static final int[][] ROOK_DIRECTIONS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+
+    /**
+     * Эталон: пошаговый обход лучей до первой занятой клетки включительно
+     */
+    private static long rayAttacks(int square, long occupied, int[][] directions) {
+        long attacks = 0L;
+        for (int[] direction : directions) {
+            int rank = square / 8 + direction[0];
+            int file = square % 8 + direction[1];
+            while (rank >= 0 && rank < 8 && file >= 0 && file < 8) {
+                long target = 1L << (rank * 8 + file);
+                attacks |= target;
+                if ((occupied & target) != 0) {
+                    break;
+                }
+                rank += direction[0];
+                file += direction[1];
+            }
+        }
+        return attacks;
+    }
+
+    @Test
+    public void testMagicLookupsMatchRayWalk() {
+        Random random = new Random(20240501L);
+        for (int i = 0; i < 20_000; i++) {
+            // Разная плотность: от почти пустой доски до почти полной
+            long occupied = switch (i % 3) {
+                case 0 -> random.nextLong() & random.nextLong() & random.nextLong();
+                case 1 -> random.nextLong();
+                default -> random.nextLong() | random.nextLong();
+            };
+            for (int square = 0; square < 64; square++) {
+                assertEquals(rayAttacks(square, occupied, ROOK_DIRECTIONS), Bitboards.rookAttacks(square, occupied));
+                assertEquals(rayAttacks(square, occupied, BISHOP_DIRECTIONS), Bitboards.bishopAttacks(square, occupied));
+            }
+        }
+        for (int square = 0; square < 64; square++) {
+            assertEquals(rayAttacks(square, 0L, ROOK_DIRECTIONS) | rayAttacks(square, 0L, BISHOP_DIRECTIONS),
+                    Bitboards.queenAttacks(square, 0L));
+            assertEquals(rayAttacks(square, -1L, ROOK_DIRECTIONS), Bitboards.rookAttacks(square, -1L));
+        }
+    }
+
+    @Test
+    public void testSlidingAttacksInitializesFirst() throws Exception {
+        // Свежий загрузчик: таблицы дальнобойных фигур загружаются раньше Bitboards
+        URL classes = Bitboards.class.getProtectionDomain().getCodeSource().getLocation();
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{classes}, null)) {
+            Class<?> sliding = Class.forName("chess.mini.engine.core.SlidingAttacks", true, loader);
+            Class<?> bitboards = Class.forName("chess.mini.engine.core.Bitboards", true, loader);
+            assertNotSame(Bitboards.class, bitboards);
+            assertEquals(sliding.getClassLoader(), bitboards.getClassLoader());
+            long between = (long) bitboards.getMethod("between", int.class, int.class).invoke(null, 0, 63);
+            assertEquals(Bitboards.between(0, 63), between);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package chess.mini.engine;
+
+import chess.mini.engine.core.AttackChecker;
+import chess.mini.engine.core.Board;
+import chess.mini.engine.core.Move;
+import chess.mini.engine.core.MoveList;
+import chess.mini.engine.core.MoveValidator;
+import chess.mini.engine.core.PieceMoves;
+import chess.mini.engine.core.StaticExchange;
+import chess.mini.engine.data.Color;
+import chess.mini.engine.notation.Fen;
+import chess.mini.engine.notation.San;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StaticExchangeTest {
+
+    private static int see(String fen, String san) {
+        Board board = Fen.parse(fen);
+        return StaticExchange.see(San.parse(san, board), board);
+    }
+
+    @Test
+    public void testSee() {
+        // Незащищенная пешка
+        assertEquals(100, see("1k1r4/1pp4p/p7/4p3/8/P5P1/1PP4P/2K1R3 w - - 0 1", "Rxe5"));
+        // Конь за пешку при многократной защите
+        assertEquals(-220, see("1k1r3q/1ppn3p/p4b2/4p3/8/P2N2P1/1PP1R1BP/2K1Q3 w - - 0 1", "Nxe5"));
+        // Равный размен
+        assertEquals(0, see("4k3/8/3p4/4n3/8/5N2/8/4K3 w - - 0 1", "Nxe5"));
+        // Ладья за защищенную пешку
+        assertEquals(-400, see("4k3/8/3p4/4p3/8/8/8/4RK2 w - - 0 1", "Rxe5"));
+        // Рентген: ладья за ладьей на той же вертикали поддерживает взятие
+        assertEquals(100, see("4k3/4r3/8/4p3/8/8/4R3/4RK2 w - - 0 1", "Rxe5"));
+        // Тихий ход под бой
+        assertEquals(-900, see("4k3/8/3p4/8/8/8/8/Q3K3 w - - 0 1", "Qe5"));
+        // Король не бьет защищенную фигуру
+        assertEquals(500, see("4k3/8/8/3r4/4K3/8/8/3Q4 w - - 0 1", "Qxd5"));
+        // Взятие на проходе
+        assertEquals(100, see("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1", "exd6"));
+        // Превращение с потерей новой фигуры
+        assertEquals(-100, see("3r2k1/4P3/8/8/8/8/8/4K3 w - - 0 1", "e8=Q+"));
+        assertEquals(800, see("6k1/4P3/8/8/8/8/8/4K3 w - - 0 1", "e8=Q+"));
+        assertTrue(StaticExchange.isSafe(San.parse("O-O", Fen.parse("4k3/8/8/8/8/8/8/4K2R w K - 0 1")),
+                Fen.parse("4k3/8/8/8/8/8/8/4K2R w K - 0 1")));
+    }
+
+    @Test
+    public void testXrayAttackers() {
+        Board board = Fen.parse("4k3/4r3/8/4p3/8/8/4R3/4RK2 w - - 0 1");
+        int e5 = 36;
+        assertEquals(1L << 12, AttackChecker.attackersTo(e5, Color.WHITE, board, board.occupied()));
+        assertEquals((1L << 12) | (1L << 4), AttackChecker.xrayAttackersTo(e5, Color.WHITE, board));
+        assertEquals(1L << 52, AttackChecker.xrayAttackersTo(e5, Color.BLACK, board));
+        assertEquals((1L << 12) | (1L << 52), AttackChecker.attackersTo(e5, board, board.occupied()));
+    }
+
+    @Test
+    public void testCaptureGeneration() {
+        Random random = new Random(9);
+        MoveList moves = new MoveList();
+        MoveList captures = new MoveList();
+        int[] gain = new int[StaticExchange.BUFFER_SIZE];
+        for (int game = 0; game < 20; game++) {
+            ChessEngine engine = ChessEngine.fromFen("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+            for (int ply = 0; ply < 80; ply++) {
+                Board board = engine.getBoard();
+                Color side = board.getSideToMove();
+                moves.clear();
+                engine.getLegalMoves(moves);
+
+                captures.clear();
+                MoveValidator.getLegalCaptures(side, board, captures);
+                assertArrayEquals(sorted(moves, true), sorted(captures, false));
+
+                // Псевдолегальные взятия - надмножество легальных
+                captures.clear();
+                PieceMoves.generateCaptures(side, board, captures);
+                for (int i = 0; i < captures.size(); i++) {
+                    assertTrue(Move.isCapture(captures.get(i)));
+                }
+                for (int move : sorted(moves, true)) {
+                    assertTrue(captures.contains(move));
+                    // Повторно используемый буфер не влияет на результат
+                    assertEquals(StaticExchange.see(move, board), StaticExchange.see(move, board, gain));
+                }
+
+                if (moves.isEmpty()) {
+                    break;
+                }
+                engine.makeMove(moves.get(random.nextInt(moves.size())));
+            }
+        }
+    }
+
+    private static int[] sorted(MoveList moves, boolean capturesOnly) {
+        return Arrays.stream(Arrays.copyOf(moves.array(), moves.size()))
+                .filter(move -> !capturesOnly || Move.isCapture(move))
+                .sorted()
+                .toArray();
+    }
+}
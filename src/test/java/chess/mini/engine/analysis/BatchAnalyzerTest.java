@@ -0,0 +1,126 @@
+package chess.mini.engine.analysis;
+
+import chess.mini.engine.ChessEngine;
+import chess.mini.engine.core.Board;
+import chess.mini.engine.core.MoveList;
+import chess.mini.engine.eval.Evaluator;
+import chess.mini.engine.notation.Fen;
+import chess.mini.engine.notation.PositionCodec;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchAnalyzerTest {
+
+    /**
+     * Позиции случайных партий из начальной позиции
+     */
+    private static List<Board> randomPositions(int games, long seed) {
+        Random random = new Random(seed);
+        List<Board> positions = new ArrayList<>();
+        MoveList moves = new MoveList();
+        for (int game = 0; game < games; game++) {
+            ChessEngine engine = new ChessEngine();
+            for (int ply = 0; ply < 100; ply++) {
+                positions.add(engine.getBoardCopy());
+                moves.clear();
+                engine.getLegalMoves(moves);
+                if (moves.isEmpty()) {
+                    break;
+                }
+                engine.makeMove(moves.get(random.nextInt(moves.size())));
+            }
+        }
+        return positions;
+    }
+
+    private static void assertMatchesEngine(Board board, PositionAnalysis analysis) {
+        ChessEngine engine = new ChessEngine(board, board.getSideToMove());
+        MoveList moves = new MoveList();
+        engine.getLegalMoves(moves);
+        int[] expected = Arrays.copyOf(moves.array(), moves.size());
+        int[] actual = analysis.moves().clone();
+        Arrays.sort(expected);
+        Arrays.sort(actual);
+
+        assertEquals(board.hash(), analysis.hash());
+        assertEquals(new Evaluator().evaluate(board), analysis.evaluation());
+        assertArrayEquals(expected, actual);
+        assertEquals(engine.isCheckmate(), analysis.status() == PositionStatus.CHECKMATE);
+        assertEquals(engine.isStalemate(), analysis.status() == PositionStatus.STALEMATE);
+        assertEquals(engine.inCheck(), analysis.status() == PositionStatus.CHECK
+                || analysis.status() == PositionStatus.CHECKMATE);
+    }
+
+    @Test
+    public void testListMatchesEngine() {
+        List<Board> positions = randomPositions(20, 1);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<PositionAnalysis> results = new BatchAnalyzer(pool).analyze(positions);
+            assertEquals(positions.size(), results.size());
+            for (int i = 0; i < positions.size(); i++) {
+                assertMatchesEngine(positions.get(i), results.get(i));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testEncodedPositions() {
+        List<Board> positions = randomPositions(10, 2);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(positions.size() * PositionCodec.SIZE);
+        for (Board board : positions) {
+            PositionCodec.encode(board, buffer);
+        }
+        buffer.flip();
+
+        PositionAnalysis[] results = new BatchAnalyzer().analyze(buffer);
+        assertEquals(positions.size(), results.length);
+        for (int i = 0; i < positions.size(); i++) {
+            assertMatchesEngine(positions.get(i), results[i]);
+        }
+        assertThrows(IllegalArgumentException.class, () -> new BatchAnalyzer().analyze(ByteBuffer.allocate(33)));
+    }
+
+    @Test
+    public void testStream() {
+        List<Board> positions = randomPositions(10, 3);
+        List<PositionAnalysis> results = BatchAnalyzer.analyze(positions.parallelStream()).toList();
+        for (int i = 0; i < positions.size(); i++) {
+            assertMatchesEngine(positions.get(i), results.get(i));
+        }
+    }
+
+    @Test
+    public void testStatus() {
+        assertEquals(PositionStatus.NORMAL, BatchAnalyzer.analyze(Board.initial()).status());
+        assertEquals(20, BatchAnalyzer.analyze(Board.initial()).moves().length);
+        assertEquals(0, BatchAnalyzer.analyze(Board.initial()).evaluation());
+
+        PositionAnalysis mate = BatchAnalyzer.analyze(Fen.parse("rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3"));
+        assertEquals(PositionStatus.CHECKMATE, mate.status());
+        assertTrue(mate.status().isTerminal());
+        assertEquals(0, mate.moves().length);
+
+        assertEquals(PositionStatus.STALEMATE, BatchAnalyzer.analyze(Fen.parse("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1")).status());
+        assertEquals(PositionStatus.CHECK, BatchAnalyzer.analyze(Fen.parse("4k3/8/8/8/8/8/8/4K2r w - - 0 1")).status());
+        assertTrue(BatchAnalyzer.analyze(Fen.parse("4k3/8/8/8/8/8/8/4K2r w - - 0 1")).evaluation() < -400);
+    }
+
+    @Test
+    public void testInputNotModified() {
+        Board board = Fen.parse("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        String fen = Fen.toFen(board);
+        BatchAnalyzer.analyze(board);
+        assertEquals(fen, Fen.toFen(board));
+    }
+}
@@ -0,0 +1,80 @@
+package chess.mini.engine.book;
+
+import chess.mini.engine.ChessEngine;
+import chess.mini.engine.core.Move;
+import chess.mini.engine.core.MoveList;
+import chess.mini.engine.notation.PgnReader;
+import chess.mini.engine.search.Search;
+import chess.mini.engine.search.SearchLimits;
+import chess.mini.engine.search.SearchResult;
+import chess.mini.engine.search.TranspositionTable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OpeningBookTest {
+
+    private static final String PGN = """
+            [Result "1-0"]
+            1. e4 e5 2. Nf3 Nc6 1-0
+
+            [Result "1/2-1/2"]
+            1. e4 c5 2. Nf3 d6 1/2-1/2
+
+            [Result "0-1"]
+            1. d4 d5 2. c4 e6 0-1
+            """;
+
+    private static OpeningBookBuilder builder() {
+        OpeningBookBuilder builder = new OpeningBookBuilder(3);
+        new PgnReader(new ByteArrayInputStream(PGN.getBytes(StandardCharsets.UTF_8))).forEachRemaining(builder::add);
+        return builder;
+    }
+
+    @Test
+    public void testLookup(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("book.bin");
+        builder().write(file);
+        OpeningBook book = OpeningBook.open(file);
+
+        // 1.d4 проиграла белым и не попала в книгу; 1...d5 выиграла черным
+        ChessEngine engine = new ChessEngine();
+        MoveList moves = new MoveList();
+        assertEquals(3, book.lookup(engine.hash(), moves));
+        assertEquals(1, moves.size());
+        assertEquals("e2e4", Move.toString(moves.get(0)));
+
+        // После 1.e4 черные проиграли с 1...e5 и сделали ничью с 1...c5
+        engine.makeMove(moves.get(0));
+        moves.clear();
+        assertEquals(1, book.lookup(engine.hash(), moves));
+        assertEquals(1, moves.size());
+        assertEquals("c7c5", Move.toString(book.bestMove(engine)));
+        // Перегрузки с буфером вызывающего дают тот же результат
+        assertEquals("c7c5", Move.toString(book.bestMove(engine, moves)));
+        assertEquals("c7c5", Move.toString(book.pickMove(engine, new Random(1), moves)));
+
+        // За пределами maxPly книга молчит
+        engine.makeMove(book.pickMove(engine, new Random(1)));
+        assertEquals("g1f3", Move.toString(book.bestMove(engine)));
+        engine.makeMove(book.bestMove(engine));
+        assertEquals(Move.NONE, book.pickMove(engine, new Random(1)));
+    }
+
+    @Test
+    public void testSearchUsesBook() {
+        Search search = new Search(new TranspositionTable(1));
+        search.setOpeningBook(builder().build());
+
+        SearchResult result = search.search(new ChessEngine(), SearchLimits.depth(6));
+        assertEquals("e2e4", Move.toString(result.bestMove()));
+        assertEquals(0, result.nodes());
+    }
+}
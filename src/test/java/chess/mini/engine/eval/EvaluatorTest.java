@@ -0,0 +1,98 @@
+package chess.mini.engine.eval;
+
+import chess.mini.engine.ChessEngine;
+import chess.mini.engine.core.Board;
+import chess.mini.engine.core.MoveList;
+import chess.mini.engine.core.PieceSquareTables;
+import chess.mini.engine.data.Color;
+import chess.mini.engine.data.Piece;
+import chess.mini.engine.notation.Fen;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EvaluatorTest {
+    private static final Evaluator EVALUATOR = new Evaluator();
+
+    /**
+     * Зеркальная позиция: доска отражена по вертикали, цвета фигур и очередь хода поменяны
+     */
+    private static Board mirror(Board board) {
+        Board mirrored = new Board();
+        for (long pieces = board.occupied(); pieces != 0; pieces &= pieces - 1) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            Piece piece = board.getPiece(square);
+            mirrored.setPiece(square ^ 56, Piece.of(piece.type(), piece.color().opposite()));
+        }
+        mirrored.setSideToMove(board.getSideToMove().opposite());
+        return mirrored;
+    }
+
+    @Test
+    public void testInitialPositionIsBalanced() {
+        Board board = Board.initial();
+        assertEquals(0, EVALUATOR.evaluate(board));
+        assertEquals(PieceSquareTables.MAX_PHASE, board.phase());
+        assertEquals(board.mgScore(Color.WHITE), board.mgScore(Color.BLACK));
+    }
+
+    @Test
+    public void testIncrementalScoresMatchRecomputed() {
+        Random random = new Random(11);
+        MoveList moves = new MoveList();
+        for (int game = 0; game < 20; game++) {
+            ChessEngine engine = new ChessEngine();
+            for (int ply = 0; ply < 120; ply++) {
+                Board board = engine.getBoard();
+                Board fresh = engine.getBoardCopy();
+                for (Color color : Color.values()) {
+                    assertEquals(fresh.mgScore(color), board.mgScore(color));
+                    assertEquals(fresh.egScore(color), board.egScore(color));
+                }
+                assertEquals(fresh.phase(), board.phase());
+                assertEquals(EVALUATOR.evaluate(board), EVALUATOR.evaluate(mirror(board)));
+
+                moves.clear();
+                engine.getLegalMoves(moves);
+                if (moves.isEmpty()) {
+                    break;
+                }
+                engine.makeMove(moves.get(random.nextInt(moves.size())));
+            }
+            while (engine.getPly() > 0) {
+                engine.unmakeMove();
+            }
+            assertEquals(0, EVALUATOR.evaluate(engine.getBoard()));
+        }
+    }
+
+    @Test
+    public void testTerms() {
+        // Лишняя пешка
+        assertTrue(EVALUATOR.evaluate(Fen.parse("4k3/8/8/8/8/8/4P3/4K3 w - - 0 1")) > 100);
+        // Проходная пешка на седьмой горизонтали стоит больше, чем на второй
+        assertTrue(EVALUATOR.evaluate(Fen.parse("4k3/P7/8/8/8/8/8/4K3 w - - 0 1"))
+                > EVALUATOR.evaluate(Fen.parse("4k3/8/8/8/8/8/P7/4K3 w - - 0 1")));
+        // Сдвоенные пешки хуже здоровых
+        long doubled = Evaluator.pawnStructure(Fen.parse("4k3/pp6/8/8/8/3P4/3P4/4K3 w - - 0 1"));
+        long healthy = Evaluator.pawnStructure(Fen.parse("4k3/pp6/8/8/8/8/2PP4/4K3 w - - 0 1"));
+        assertTrue(Evaluator.mg(doubled) < Evaluator.mg(healthy));
+        assertTrue(Evaluator.eg(doubled) < Evaluator.eg(healthy));
+        // Король в эндшпиле стремится в центр
+        assertTrue(EVALUATOR.evaluate(Fen.parse("7k/8/8/8/3K4/8/8/8 w - - 0 1")) > 0);
+        // Развитый конь подвижнее
+        assertTrue(EVALUATOR.evaluate(Fen.parse("rnbqkbnr/pppppppp/8/8/8/5N2/PPPPPPPP/RNBQKB1R b KQkq - 1 1")) < 0);
+    }
+
+    @Test
+    public void testPacking() {
+        long packed = Evaluator.pack(-37, 120);
+        assertEquals(-37, Evaluator.mg(packed));
+        assertEquals(120, Evaluator.eg(packed));
+        packed = Evaluator.pack(15, -4);
+        assertEquals(15, Evaluator.mg(packed));
+        assertEquals(-4, Evaluator.eg(packed));
+    }
+}
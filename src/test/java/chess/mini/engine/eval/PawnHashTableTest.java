@@ -0,0 +1,95 @@
+package chess.mini.engine.eval;
+
+import chess.mini.engine.ChessEngine;
+import chess.mini.engine.core.Board;
+import chess.mini.engine.core.MoveList;
+import chess.mini.engine.data.Color;
+import chess.mini.engine.notation.Fen;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PawnHashTableTest {
+
+    @Test
+    public void testStoreAndProbe() {
+        PawnHashTable table = new PawnHashTable(1);
+        PawnHashTable.Entry entry = new PawnHashTable.Entry();
+        long key = 0x123456789ABCDEFL;
+
+        assertFalse(table.probe(key, entry));
+        table.store(key, Evaluator.pack(-15, 30), 0xFF0000L, 0xFF00000000L);
+        assertTrue(table.probe(key, entry));
+        assertEquals(-15, Evaluator.mg(entry.score()));
+        assertEquals(30, Evaluator.eg(entry.score()));
+        assertEquals(0xFF0000L, entry.attacks(Color.WHITE));
+        assertEquals(0xFF00000000L, entry.attacks(Color.BLACK));
+        assertEquals(1, table.hits());
+        assertEquals(1, table.misses());
+    }
+
+    @Test
+    public void testTwoWayEviction() {
+        PawnHashTable table = new PawnHashTable(1);
+        PawnHashTable.Entry entry = new PawnHashTable.Entry();
+        int buckets = table.capacity() / 2;
+        long first = 5L;
+        long second = first + buckets;
+        long third = second + buckets;
+
+        table.store(first, 1, 0, 0);
+        table.store(second, 2, 0, 0);
+        assertTrue(table.probe(first, entry));
+        assertTrue(table.probe(second, entry));
+
+        // Третья запись в той же корзине вытесняет самую старую
+        table.store(third, 3, 0, 0);
+        assertFalse(table.probe(first, entry));
+        assertTrue(table.probe(second, entry));
+        assertTrue(table.probe(third, entry));
+        assertEquals(3, entry.score());
+
+        // Повторная запись того же ключа не вытесняет соседнюю
+        table.store(third, 4, 0, 0);
+        assertTrue(table.probe(second, entry));
+        assertTrue(table.probe(third, entry));
+        assertEquals(4, entry.score());
+    }
+
+    @Test
+    public void testPawnHashIsIncremental() {
+        Board board = Fen.parse("4k3/8/8/8/8/8/8/4K3 w - - 0 1");
+        assertEquals(0L, board.pawnHash());
+        board.setPiece(12, Fen.parse("4k3/8/8/8/8/8/4P3/4K3 w - - 0 1").getPiece(12));
+        assertEquals(Fen.parse("4k3/8/8/8/8/8/4P3/4K3 b - - 0 1").pawnHash(), board.pawnHash());
+        assertEquals(Fen.parse("3qk3/8/8/8/8/8/4P3/4K3 w - - 0 1").pawnHash(), board.pawnHash());
+    }
+
+    @Test
+    public void testCachedEvaluationMatchesUncached() {
+        Evaluator plain = new Evaluator();
+        PawnHashTable table = new PawnHashTable(1);
+        Evaluator cached = new Evaluator(table);
+        Random random = new Random(3);
+        MoveList moves = new MoveList();
+        for (int game = 0; game < 20; game++) {
+            ChessEngine engine = new ChessEngine();
+            for (int ply = 0; ply < 120; ply++) {
+                Board board = engine.getBoard();
+                assertEquals(engine.getBoardCopy().pawnHash(), board.pawnHash());
+                assertEquals(plain.evaluate(board), cached.evaluate(board));
+                assertEquals(plain.evaluate(board), cached.evaluate(board));
+
+                moves.clear();
+                engine.getLegalMoves(moves);
+                if (moves.isEmpty()) {
+                    break;
+                }
+                engine.makeMove(moves.get(random.nextInt(moves.size())));
+            }
+        }
+        assertTrue(table.hits() > table.misses());
+    }
+}
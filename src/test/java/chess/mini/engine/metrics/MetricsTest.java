@@ -0,0 +1,112 @@
+package chess.mini.engine.metrics;
+
+import chess.mini.engine.ChessEngine;
+import chess.mini.engine.search.Search;
+import chess.mini.engine.search.SearchLimits;
+import chess.mini.engine.search.SearchResult;
+import chess.mini.engine.search.TranspositionTable;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetricsTest {
+
+    @AfterEach
+    public void tearDown() {
+        Metrics.setEnabled(false);
+        Metrics.reset();
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        assertFalse(Metrics.isEnabled());
+        new Search(new TranspositionTable(1)).search(new ChessEngine(), SearchLimits.depth(3));
+        for (long value : Metrics.counters().values()) {
+            assertEquals(0, value);
+        }
+        assertEquals(0, Metrics.searchDepth().count());
+    }
+
+    @Test
+    public void testSearchCounters() {
+        Metrics.setEnabled(true);
+        List<SearchResult> completed = new ArrayList<>();
+        MetricsListener listener = (depth, nodes, score, elapsedMillis) ->
+                completed.add(new SearchResult(0, score, depth, nodes, elapsedMillis));
+        Metrics.addListener(listener);
+        try {
+            SearchResult result = new Search(new TranspositionTable(1)).search(new ChessEngine(), SearchLimits.depth(4));
+
+            assertEquals(result.nodes(), Metrics.get(Counter.NODES));
+            assertTrue(Metrics.get(Counter.MOVE_GENERATIONS) > 0);
+            assertTrue(Metrics.get(Counter.LEGALITY_CHECKS) > 0);
+            assertTrue(Metrics.get(Counter.ATTACK_SCANS) > 0);
+            assertTrue(Metrics.get(Counter.TT_HITS) + Metrics.get(Counter.TT_MISSES) > 0);
+            assertTrue(Metrics.get(Counter.PAWN_TABLE_HITS) > 0);
+            double hitRate = Metrics.hitRate(Counter.PAWN_TABLE_HITS, Counter.PAWN_TABLE_MISSES);
+            assertTrue(hitRate > 0 && hitRate <= 1);
+
+            assertEquals(1, Metrics.searchDepth().count());
+            assertEquals(4, Metrics.searchDepth().percentile(1.0));
+            assertEquals(1, Metrics.searchTimeMillis().count());
+
+            assertEquals(1, completed.size());
+            assertEquals(result.depth(), completed.get(0).depth());
+            assertEquals(result.nodes(), completed.get(0).nodes());
+        } finally {
+            Metrics.removeListener(listener);
+        }
+
+        Metrics.reset();
+        assertEquals(0, Metrics.get(Counter.NODES));
+        assertEquals(0, Metrics.searchDepth().count());
+    }
+
+    @Test
+    public void testHistogram() {
+        Histogram histogram = Histogram.exponential(8);
+        assertEquals(5, histogram.buckets());
+        for (long value : new long[]{0, 1, 2, 3, 5, 8, 100}) {
+            histogram.record(value);
+        }
+        assertEquals(7, histogram.count());
+        assertEquals(2, histogram.count(0)); // 0 и 1
+        assertEquals(1, histogram.count(1)); // 2
+        assertEquals(1, histogram.count(2)); // 3
+        assertEquals(2, histogram.count(3)); // 5 и 8
+        assertEquals(1, histogram.count(4)); // 100
+        assertEquals(4, histogram.percentile(0.5));
+        assertEquals(Long.MAX_VALUE, histogram.percentile(1.0));
+
+        assertThrows(IllegalArgumentException.class, () -> new Histogram(4, 2));
+    }
+
+    @Test
+    public void testSearchEvent(@TempDir Path directory) throws Exception {
+        Metrics.setEnabled(true);
+        Path file = directory.resolve("search.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("chess.mini.Search");
+            recording.start();
+            new Search(new TranspositionTable(1)).search(new ChessEngine(), SearchLimits.depth(3));
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals("chess.mini.Search"))
+                .toList();
+        assertEquals(1, events.size());
+        assertEquals(3, events.get(0).getInt("depth"));
+        assertTrue(events.get(0).getLong("nodes") > 0);
+    }
+}
@@ -0,0 +1,70 @@
+package chess.mini.engine.notation;
+
+import chess.mini.engine.ChessEngine;
+import chess.mini.engine.core.Board;
+import chess.mini.engine.core.MoveList;
+import chess.mini.engine.data.Color;
+import chess.mini.engine.data.Piece;
+import chess.mini.engine.data.PieceType;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CodecTest {
+
+    @Test
+    public void testPositionRoundTrip() {
+        String fen = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/4Pp2/2N2Q1p/PPPBBPPP/R3K2R b Kq e3 3 17";
+        byte[] bytes = PositionCodec.encode(Fen.parse(fen));
+        assertEquals(PositionCodec.SIZE, bytes.length);
+        assertEquals(fen, Fen.toFen(PositionCodec.decode(bytes)));
+    }
+
+    @Test
+    public void testReadsWithoutDecoding() {
+        ByteBuffer buffer = ByteBuffer.allocate(PositionCodec.SIZE * 2);
+        PositionCodec.encode(new Board(), buffer);
+        PositionCodec.encode(Board.initial(), buffer);
+
+        int offset = PositionCodec.SIZE;
+        assertEquals(Board.initial().occupied(), PositionCodec.occupied(buffer, offset));
+        assertEquals(new Piece(PieceType.QUEEN, Color.BLACK), PositionCodec.pieceAt(buffer, offset, 59));
+        assertNull(PositionCodec.pieceAt(buffer, offset, 27));
+        assertEquals(0xFF00L, PositionCodec.pieces(buffer, offset, Piece.of(PieceType.PAWN, Color.WHITE).index()));
+        assertEquals(Color.WHITE, PositionCodec.sideToMove(buffer, offset));
+        assertEquals(Board.ALL_CASTLING, PositionCodec.castlingRights(buffer, offset));
+        assertEquals(0L, PositionCodec.occupied(buffer, 0));
+    }
+
+    @Test
+    public void testGameRoundTrip() {
+        ChessEngine engine = new ChessEngine();
+        Random random = new Random(7);
+        MoveList moves = new MoveList();
+        for (int i = 0; i < 120; i++) {
+            moves.clear();
+            engine.getLegalMoves(moves);
+            if (moves.isEmpty()) {
+                break;
+            }
+            engine.makeMove(moves.get(random.nextInt(moves.size())));
+        }
+        String fen = engine.toFen();
+
+        ByteBuffer buffer = ByteBuffer.allocate(GameCodec.encodedSize(engine.getPly()));
+        GameCodec.encode(engine, buffer);
+        assertFalse(buffer.hasRemaining());
+        assertEquals(fen, engine.toFen());
+
+        buffer.flip();
+        ChessEngine decoded = GameCodec.decode(buffer);
+        assertEquals(fen, decoded.toFen());
+        assertEquals(engine.getPly(), decoded.getPly());
+        for (int i = 0; i < engine.getPly(); i++) {
+            assertEquals(engine.getMove(i), decoded.getMove(i));
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package chess.mini.engine.notation;
+
+import chess.mini.engine.ChessEngine;
+import chess.mini.engine.core.Board;
+import chess.mini.engine.data.Color;
+import chess.mini.engine.data.Piece;
+import chess.mini.engine.data.PieceType;
+import chess.mini.engine.data.Square;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FenTest {
+
+    @Test
+    public void testInitialPosition() {
+        Board board = Fen.parse(Fen.INITIAL);
+        assertEquals(Board.initial().hash(), board.hash());
+        assertEquals(Fen.INITIAL, Fen.toFen(Board.initial()));
+    }
+
+    @Test
+    public void testRoundTrip() {
+        String fen = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/4Pp2/2N2Q1p/PPPBBPPP/R3K2R b Kq e3 3 17";
+        Board board = Fen.parse(fen);
+        assertEquals(Color.BLACK, board.getSideToMove());
+        assertEquals(Board.WHITE_KINGSIDE | Board.BLACK_QUEENSIDE, board.getCastlingRights());
+        assertEquals(20, board.getEnPassantSquare());
+        assertEquals(3, board.getHalfmoveClock());
+        assertEquals(17, board.getFullmoveNumber());
+        assertEquals(new Piece(PieceType.QUEEN, Color.BLACK), board.getPiece(6, 4));
+        assertEquals(fen, Fen.toFen(board));
+    }
+
+    @Test
+    public void testMovesUpdateCounters() {
+        ChessEngine engine = new ChessEngine();
+        engine.makeMove(new Square(4, 1), new Square(4, 3));
+        // Взять на проходе нечем - клетка e3 не сохраняется
+        assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1", engine.toFen());
+        engine.makeMove(new Square(6, 7), new Square(5, 5));
+        engine.makeMove(new Square(6, 0), new Square(5, 2));
+        assertEquals("rnbqkb1r/pppppppp/5n2/8/4P3/5N2/PPPP1PPP/RNBQKB1R b KQkq - 2 2", engine.toFen());
+
+        engine.unmakeMove();
+        engine.unmakeMove();
+        engine.unmakeMove();
+        assertEquals(Fen.INITIAL, engine.toFen());
+    }
+
+    @Test
+    public void testInvalidFen() {
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("8/8/8 w - -"));
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNX w KQkq - 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("8/8/8/8/8/8/8/8 x - - 0 1"));
+    }
+
+    @Test
+    public void testInvalidEnPassantSquare() {
+        // После 1. e4: верно только e3 при ходе черных; без черной пешки рядом клетка не сохраняется
+        assertEquals(-1, Fen.parse("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1").getEnPassantSquare());
+        assertEquals(20, Fen.parse("rnbqkbnr/ppp1pppp/8/8/3pP3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1").getEnPassantSquare());
+        // Не та горизонталь для стороны, которая ходит
+        assertThrows(IllegalArgumentException.class,
+                () -> Fen.parse("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR w KQkq e3 0 1"));
+        assertThrows(IllegalArgumentException.class,
+                () -> Fen.parse("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e6 0 1"));
+        // За клеткой нет пешки соперника
+        assertThrows(IllegalArgumentException.class,
+                () -> Fen.parse("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq d3 0 1"));
+        assertThrows(IllegalArgumentException.class,
+                () -> Fen.parse("rnbqkbnr/pppppppp/8/8/4N3/8/PPPP1PPP/RNBQKB1R b KQkq e3 0 1"));
+        // Клетка взятия занята
+        assertThrows(IllegalArgumentException.class,
+                () -> Fen.parse("rnbqkbnr/pppppppp/8/8/4P3/4N3/PPPP1PPP/RNBQKB1R b KQkq e3 0 1"));
+    }
+}
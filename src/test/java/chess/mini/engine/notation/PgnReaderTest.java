@@ -0,0 +1,133 @@
+package chess.mini.engine.notation;
+
+import chess.mini.engine.ChessEngine;
+import chess.mini.engine.core.Board;
+import chess.mini.engine.core.Move;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PgnReaderTest {
+
+    private static final String PGN = """
+            [Event "Test"]
+            [White "Иванов"]
+            [Black "Petrov"]
+            [Result "1-0"]
+
+            1. e4 e5 2. Nf3 Nc6 3. Bc4 {Итальянская} Bc5 (3... Nf6 4. Ng5) 4. O-O Nf6
+            5. d4 exd4 6. e5 d5 $1 7. exd6 Qxd6 8. Re1+ Be6 1-0
+
+            [Event "Promotion"]
+            [FEN "8/P7/8/8/8/8/8/k1K5 w - - 0 1"]
+
+            1.a8=N Ka2 *
+            """;
+
+    private static PgnReader reader(String pgn) {
+        return new PgnReader(new ByteArrayInputStream(pgn.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void testReadsGames() {
+        List<PgnGame> games;
+        try (Stream<PgnGame> stream = reader(PGN).stream()) {
+            games = stream.toList();
+        }
+        assertEquals(2, games.size());
+
+        PgnGame first = games.get(0);
+        assertEquals("Иванов", first.tag("White"));
+        assertEquals("1-0", first.result());
+        assertEquals(16, first.moves().length);
+        assertEquals(Move.KING_CASTLE, Move.flags(first.moves()[6]));
+        assertEquals(Move.EN_PASSANT, Move.flags(first.moves()[12]));
+        assertEquals("r3k2r/ppp2ppp/2nqbn2/2b5/2Bp4/5N2/PPP2PPP/RNBQR1K1 w kq - 2 9", first.replay().toFen());
+
+        PgnGame second = games.get(1);
+        assertEquals("*", second.result());
+        assertEquals("a7a8n", Move.toString(second.moves()[0]));
+        assertEquals(3, countPositions(second));
+    }
+
+    private static int countPositions(PgnGame game) {
+        int[] count = new int[1];
+        game.forEachPosition(engine -> count[0]++);
+        return count[0];
+    }
+
+    @Test
+    public void testIllegalMoveSkipsGame() {
+        PgnReader reader = reader("1. e4 e5 2. Ke3 *\n\n1. d4 d5 1/2-1/2\n");
+        assertThrows(IllegalArgumentException.class, reader::next);
+        assertEquals("1/2-1/2", reader.next().result());
+        assertFalse(reader.hasNext());
+    }
+
+    @Test
+    public void testInvalidFenSkipsGame() {
+        PgnReader reader = reader("""
+                [FEN "8/8/8 w - - 0 1"]
+
+                1. e4 e5 1-0
+
+                [Event "Good"]
+
+                1. d4 d5 1/2-1/2
+                """);
+        assertTrue(reader.hasNext()); // Разбор и ошибка - только в next()
+        assertThrows(IllegalArgumentException.class, reader::next);
+        assertTrue(reader.hasNext());
+        PgnGame game = reader.next();
+        assertEquals("Good", game.tag("Event"));
+        assertEquals("1/2-1/2", game.result());
+        assertFalse(reader.hasNext());
+    }
+
+    @Test
+    public void testStreamSkipsInvalidGames() {
+        List<IllegalArgumentException> errors = new ArrayList<>();
+        List<PgnGame> games;
+        try (Stream<PgnGame> stream = reader("1. e4 e5 2. Ke3 *\n\n" + PGN + "\n[FEN \"bad\"]\n\n1. e4 *\n").stream(errors::add)) {
+            games = stream.toList();
+        }
+        assertEquals(2, games.size());
+        assertEquals(2, errors.size());
+        assertEquals("Иванов", games.get(0).tag("White"));
+    }
+
+    @Test
+    public void testMappedFile(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("games.pgn");
+        Files.writeString(file, PGN.repeat(50));
+        try (Stream<PgnGame> games = PgnReader.games(file)) {
+            assertEquals(900, games.parallel().mapToInt(game -> game.moves().length).sum());
+        }
+    }
+
+    @Test
+    public void testSanDisambiguation() {
+        Board board = Fen.parse("4k3/8/8/8/8/8/6K1/R6R w - - 0 1");
+        assertEquals("a1d1", Move.toString(San.parse("Rad1", board)));
+        assertEquals("h1d1", Move.toString(San.parse("Rhxd1", board)));
+        assertThrows(IllegalArgumentException.class, () -> San.parse("Rd1", board));
+        assertThrows(IllegalArgumentException.class, () -> San.parse("Nf3", board));
+        assertThrows(IllegalArgumentException.class, () -> San.parse("O-O", board));
+
+        Board castling = Fen.parse("4k3/8/8/8/8/8/8/R3K2R w KQ - 0 1");
+        assertEquals(Move.QUEEN_CASTLE, Move.flags(San.parse("O-O-O", castling)));
+
+        ChessEngine engine = new ChessEngine();
+        assertEquals("g1f3", Move.toString(San.parse("Nf3!?", engine.getBoard())));
+    }
+}
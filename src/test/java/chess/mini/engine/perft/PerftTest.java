@@ -0,0 +1,29 @@
+package chess.mini.engine.perft;
+
+import chess.mini.engine.ChessEngine;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PerftTest {
+
+    @Test
+    public void testStandardPositions() {
+        // Ограничиваем глубину, чтобы тест оставался быстрым
+        for (PerftResult result : PerftSuite.run(4, null)) {
+            assertTrue(result.passed(), result.toString());
+        }
+    }
+
+    @Test
+    public void testDivideSumsToPerft() {
+        ChessEngine engine = new ChessEngine();
+        Map<String, Long> divide = engine.perftDivide(3);
+
+        assertEquals(20, divide.size());
+        assertEquals(600L, divide.get("e2e4"));
+        assertEquals(engine.perft(3), divide.values().stream().mapToLong(Long::longValue).sum());
+    }
+}
@@ -0,0 +1,109 @@
+package chess.mini.engine.search;
+
+import chess.mini.engine.ChessEngine;
+import chess.mini.engine.core.Move;
+import chess.mini.engine.core.MoveList;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelSearchTest {
+
+    private static final String MIDDLEGAME = "r1bqkb1r/pppp1ppp/2n2n2/4p3/2B1P3/5N2/PPPP1PPP/RNBQK2R w KQkq - 4 4";
+    private static final SearchLimits UNLIMITED = new SearchLimits(0, 0, 0);
+
+    private static void assertLegal(ChessEngine engine, int move) {
+        MoveList moves = new MoveList();
+        engine.getLegalMoves(moves);
+        assertTrue(moves.contains(move), Move.toString(move));
+    }
+
+    @Test
+    public void testPlatformAndVirtualThreads() {
+        try (ParallelSearch platform = ParallelSearch.withPlatformThreads(new TranspositionTable(4), 3);
+             ParallelSearch virtual = ParallelSearch.withVirtualThreads(new TranspositionTable(4), 3)) {
+            for (ParallelSearch search : new ParallelSearch[]{platform, virtual}) {
+                ChessEngine engine = ChessEngine.fromFen(MIDDLEGAME);
+                SearchResult result = search.search(engine, SearchLimits.depth(4));
+                assertEquals(3, search.getThreads());
+                assertEquals(4, result.depth());
+                assertLegal(engine, result.bestMove());
+            }
+        }
+    }
+
+    @Test
+    public void testFindsMate() {
+        try (ParallelSearch search = ParallelSearch.withPlatformThreads(new TranspositionTable(4), 2)) {
+            ChessEngine engine = ChessEngine.fromFen("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+            SearchResult result = search.search(engine, SearchLimits.depth(4));
+            assertEquals("a1a8", Move.toString(result.bestMove()));
+            assertTrue(result.isMateScore());
+        }
+    }
+
+    @Test
+    public void testPositionUnchanged() {
+        try (ParallelSearch search = ParallelSearch.withPlatformThreads(new TranspositionTable(4), 3)) {
+            ChessEngine engine = ChessEngine.fromFen(MIDDLEGAME);
+            engine.makeMove(Move.encode(4, 5, Move.QUIET)); // Kf1
+            String fen = engine.toFen();
+            long hash = engine.hash();
+
+            search.search(engine, SearchLimits.depth(4));
+
+            assertEquals(fen, engine.toFen());
+            assertEquals(hash, engine.hash());
+            assertEquals(1, engine.getPly());
+        }
+    }
+
+    @Test
+    public void testLimitsStopHelpers() {
+        try (ParallelSearch search = ParallelSearch.withPlatformThreads(new TranspositionTable(4), 3)) {
+            // Вспомогательные потоки ищут без лимитов: поиск вернется, только если их остановил основной
+            SearchResult byNodes = assertTimeoutPreemptively(Duration.ofSeconds(20),
+                    () -> search.search(ChessEngine.fromFen(MIDDLEGAME), SearchLimits.nodes(20_000)));
+            assertTrue(byNodes.nodes() >= 20_000);
+            assertLegal(ChessEngine.fromFen(MIDDLEGAME), byNodes.bestMove());
+
+            SearchResult byTime = assertTimeoutPreemptively(Duration.ofSeconds(20),
+                    () -> search.search(ChessEngine.fromFen(MIDDLEGAME), SearchLimits.time(200)));
+            assertLegal(ChessEngine.fromFen(MIDDLEGAME), byTime.bestMove());
+        }
+    }
+
+    @Test
+    public void testStop() throws Exception {
+        try (ParallelSearch search = ParallelSearch.withVirtualThreads(new TranspositionTable(4), 3)) {
+            ChessEngine engine = ChessEngine.fromFen(MIDDLEGAME);
+            CompletableFuture<SearchResult> running = CompletableFuture.supplyAsync(() -> search.search(engine, UNLIMITED));
+            Thread.sleep(200);
+            assertFalse(running.isDone());
+
+            search.stop();
+            SearchResult result = running.get(20, TimeUnit.SECONDS);
+            assertLegal(ChessEngine.fromFen(MIDDLEGAME), result.bestMove());
+        }
+    }
+
+    @Test
+    public void testCloseTerminatesHelpers() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        ParallelSearch search = new ParallelSearch(new TranspositionTable(4), 3, executor);
+        CompletableFuture<SearchResult> running = CompletableFuture.supplyAsync(
+                () -> search.search(ChessEngine.fromFen(MIDDLEGAME), UNLIMITED));
+        Thread.sleep(200);
+
+        search.close();
+        running.get(20, TimeUnit.SECONDS);
+        assertTrue(executor.isShutdown());
+        assertTrue(executor.awaitTermination(20, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,58 @@
+package chess.mini.engine.search;
+
+import chess.mini.engine.ChessEngine;
+import chess.mini.engine.core.Board;
+import chess.mini.engine.core.Move;
+import chess.mini.engine.data.Color;
+import chess.mini.engine.data.Piece;
+import chess.mini.engine.data.PieceType;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchTest {
+
+    @Test
+    public void testFindsBackRankMate() {
+        // Белые: Kg1, Ra1; черные: Kg8, пешки f7, g7, h7
+        Board board = new Board();
+        board.setPiece(0, 6, new Piece(PieceType.KING, Color.WHITE));
+        board.setPiece(0, 0, new Piece(PieceType.ROOK, Color.WHITE));
+        board.setPiece(7, 6, new Piece(PieceType.KING, Color.BLACK));
+        board.setPiece(6, 5, new Piece(PieceType.PAWN, Color.BLACK));
+        board.setPiece(6, 6, new Piece(PieceType.PAWN, Color.BLACK));
+        board.setPiece(6, 7, new Piece(PieceType.PAWN, Color.BLACK));
+        ChessEngine engine = new ChessEngine(board, Color.WHITE);
+        long hash = engine.hash();
+
+        SearchResult result = new Search(new TranspositionTable(4)).search(engine, SearchLimits.depth(4));
+
+        assertEquals("a1a8", Move.toString(result.bestMove()));
+        assertTrue(result.isMateScore());
+        assertTrue(result.score() > 0);
+        // Поиск возвращает позицию в исходное состояние
+        assertEquals(hash, engine.hash());
+        assertEquals(Color.WHITE, engine.getSideToMove());
+    }
+
+    @Test
+    public void testCapturesHangingQueen() {
+        ChessEngine engine = new ChessEngine();
+        engine.getBoard().setPiece(3, 4, new Piece(PieceType.QUEEN, Color.BLACK)); // Ферзь на e4
+        engine.getBoard().setPiece(2, 3, new Piece(PieceType.PAWN, Color.WHITE));   // Пешка d3 бьет e4
+        engine.getBoard().setPiece(1, 3, null);
+
+        SearchResult result = new Search(new TranspositionTable(4)).search(engine, SearchLimits.depth(3));
+
+        assertEquals("d3e4", Move.toString(result.bestMove()));
+    }
+
+    @Test
+    public void testNodeLimitIsHard() {
+        ChessEngine engine = new ChessEngine();
+        SearchResult result = new Search(new TranspositionTable(4)).search(engine, SearchLimits.nodes(5000));
+
+        assertTrue(result.nodes() <= 5000);
+        assertNotEquals(Move.NONE, result.bestMove());
+        assertEquals(Board.initial().hash(), engine.hash());
+    }
+}
@@ -0,0 +1,53 @@
+package chess.mini.engine.search;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TranspositionTableTest {
+
+    @Test
+    public void testStoreAndProbe() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 0x123456789ABCDEFL;
+
+        assertEquals(TranspositionTable.NO_ENTRY, table.probe(key));
+        assertEquals(1, table.misses());
+
+        table.store(key, 0x1234, -250, 7, TranspositionTable.BOUND_LOWER);
+        long data = table.probe(key);
+        assertNotEquals(TranspositionTable.NO_ENTRY, data);
+        assertEquals(0x1234, TranspositionTable.move(data));
+        assertEquals(-250, TranspositionTable.score(data));
+        assertEquals(7, TranspositionTable.depth(data));
+        assertEquals(TranspositionTable.BOUND_LOWER, TranspositionTable.bound(data));
+        assertEquals(1, table.hits());
+    }
+
+    @Test
+    public void testCollisionIsDetected() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 42L;
+        long other = key + ((long) table.capacity() << 8); // Тот же индекс, другой ключ
+
+        table.store(key, 1, 10, 3, TranspositionTable.BOUND_EXACT);
+        assertEquals(TranspositionTable.NO_ENTRY, table.probe(other));
+        assertEquals(1, table.collisions());
+        assertEquals(1, table.misses()); // Коллизия считается и промахом
+        assertEquals(0, table.hits());
+    }
+
+    @Test
+    public void testDepthPreferredReplacement() {
+        TranspositionTable table = new TranspositionTable(1, TranspositionTable.ReplacementPolicy.DEPTH_PREFERRED);
+        long key = 7L;
+        long other = key + table.capacity();
+
+        table.store(key, 1, 10, 8, TranspositionTable.BOUND_EXACT);
+        table.store(other, 2, 20, 2, TranspositionTable.BOUND_EXACT);
+        // Более мелкий поиск не вытесняет глубокую запись
+        assertEquals(8, TranspositionTable.depth(table.probe(key)));
+
+        table.store(other, 2, 20, 9, TranspositionTable.BOUND_EXACT);
+        assertEquals(9, TranspositionTable.depth(table.probe(other)));
+    }
+}
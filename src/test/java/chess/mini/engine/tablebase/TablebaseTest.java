@@ -0,0 +1,116 @@
+package chess.mini.engine.tablebase;
+
+import chess.mini.engine.ChessEngine;
+import chess.mini.engine.core.Bitboards;
+import chess.mini.engine.core.Board;
+import chess.mini.engine.core.Move;
+import chess.mini.engine.data.Color;
+import chess.mini.engine.data.Piece;
+import chess.mini.engine.data.PieceType;
+import chess.mini.engine.notation.Fen;
+import chess.mini.engine.search.Search;
+import chess.mini.engine.search.SearchLimits;
+import chess.mini.engine.search.SearchResult;
+import chess.mini.engine.search.TranspositionTable;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TablebaseTest {
+
+    private static TablebaseGenerator generator;
+    private static Tablebase tablebase;
+
+    @BeforeAll
+    public static void generate() {
+        generator = new TablebaseGenerator();
+        tablebase = generator.generate("KQvK");
+    }
+
+    @Test
+    public void testProbe() {
+        assertEquals(Set.of("KQvK", "KvK"), tablebase.names());
+
+        // Мат в один ход: Qa8#
+        int value = tablebase.probe(Fen.parse("7k/8/6K1/8/8/8/8/1Q6 w - - 0 1"));
+        assertEquals(Tablebase.MATE_VALUE - 1, value);
+        assertEquals(1, Tablebase.pliesToMate(value));
+
+        // Черным мат
+        assertEquals(-Tablebase.MATE_VALUE, tablebase.probe(Fen.parse("Q6k/8/6K1/8/8/8/8/8 b - - 0 1")));
+        // Пат и голые короли
+        assertEquals(Tablebase.DRAW, tablebase.probe(Fen.parse("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1")));
+        assertEquals(Tablebase.DRAW, tablebase.probe(Fen.parse("7k/8/6K1/8/8/8/8/8 w - - 0 1")));
+        // Нет таблицы
+        assertEquals(Tablebase.NOT_FOUND, tablebase.probe(Fen.parse("7k/8/6K1/8/8/8/8/R7 w - - 0 1")));
+    }
+
+    @Test
+    public void testSpecialRightsNotProbed() {
+        Board board = Fen.parse("7k/8/6K1/8/8/8/8/1Q6 w - - 0 1");
+        board.setEnPassantSquare(Bitboards.square(5, 4)); // e6
+        assertEquals(Tablebase.NOT_FOUND, tablebase.probe(board));
+
+        board.setEnPassantSquare(-1);
+        board.setCastlingRights(Board.BLACK_KINGSIDE);
+        assertEquals(Tablebase.NOT_FOUND, tablebase.probe(board));
+
+        board.setCastlingRights(0);
+        assertEquals(Tablebase.MATE_VALUE - 1, tablebase.probe(board));
+    }
+
+    @Test
+    public void testLongestMate() {
+        // Самый длинный мат в окончании KQK - 10 ходов
+        Piece whiteKing = Piece.of(PieceType.KING, Color.WHITE);
+        Piece blackKing = Piece.of(PieceType.KING, Color.BLACK);
+        Piece whiteQueen = Piece.of(PieceType.QUEEN, Color.WHITE);
+        Board board = new Board();
+        int longest = 0;
+        for (int white = 0; white < 64; white++) {
+            for (int black = 0; black < 64; black++) {
+                for (int queen = 0; queen < 64; queen++) {
+                    if (white == black || white == queen || black == queen) {
+                        continue;
+                    }
+                    board.setPiece(white, whiteKing);
+                    board.setPiece(black, blackKing);
+                    board.setPiece(queen, whiteQueen);
+                    int value = tablebase.probe(board);
+                    if (value > 0) {
+                        longest = Math.max(longest, Tablebase.pliesToMate(value));
+                    }
+                    board.setPiece(white, null);
+                    board.setPiece(black, null);
+                    board.setPiece(queen, null);
+                }
+            }
+        }
+        assertEquals(19, longest);
+    }
+
+    @Test
+    public void testMappedFiles(@TempDir Path dir) throws IOException {
+        generator.write(dir);
+        Tablebase mapped = Tablebase.open(dir);
+        assertEquals(tablebase.names(), mapped.names());
+        String fen = "8/8/3k4/8/8/8/8/Q3K3 w - - 0 1";
+        assertEquals(tablebase.probe(Fen.parse(fen)), mapped.probe(Fen.parse(fen)));
+    }
+
+    @Test
+    public void testSearchUsesTablebase() {
+        Search search = new Search(new TranspositionTable(1));
+        search.setTablebase(tablebase);
+
+        SearchResult result = search.search(ChessEngine.fromFen("7k/8/6K1/8/8/8/8/1Q6 w - - 0 1"), SearchLimits.depth(4));
+        assertEquals("b1b8", Move.toString(result.bestMove()));
+        assertEquals(Search.MATE - 1, result.score());
+    }
+}